@@ -0,0 +1,73 @@
+package com.developer.portfolio.benchmark;
+
+import com.developer.portfolio.config.DatabaseConfiguration;
+import com.developer.portfolio.repository.EntityManager;
+import com.developer.portfolio.repository.rowmapper.ColumnConverter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import org.reactivestreams.Publisher;
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.dialect.MySqlDialect;
+import org.springframework.data.r2dbc.dialect.R2dbcDialect;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Builds the persistence components as the application configures them, for MySQL - without any database.
+ */
+final class BenchmarkSupport {
+
+    static final R2dbcDialect DIALECT = MySqlDialect.INSTANCE;
+
+    /**
+     * The benchmarks never connect: any attempt fails.
+     */
+    private static final ConnectionFactory NO_DATABASE = new ConnectionFactory() {
+        @Override
+        public Publisher<? extends Connection> create() {
+            return Mono.error(new UnsupportedOperationException("Benchmarks run without a database"));
+        }
+
+        @Override
+        public ConnectionFactoryMetadata getMetadata() {
+            return () -> "none";
+        }
+    };
+
+    private BenchmarkSupport() {}
+
+    static R2dbcCustomConversions conversions() {
+        return new DatabaseConfiguration().r2dbcCustomConversions(DIALECT);
+    }
+
+    static MappingR2dbcConverter converter(R2dbcCustomConversions conversions) {
+        R2dbcMappingContext mappingContext = new R2dbcMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        return new MappingR2dbcConverter(mappingContext, conversions);
+    }
+
+    static ColumnConverter columnConverter() {
+        R2dbcCustomConversions conversions = conversions();
+        return new ColumnConverter(conversions, converter(conversions));
+    }
+
+    static EntityManager entityManager() {
+        DatabaseConfiguration configuration = new DatabaseConfiguration();
+        MappingR2dbcConverter converter = converter(conversions());
+        DatabaseClient databaseClient = DatabaseClient.builder()
+            .connectionFactory(NO_DATABASE)
+            .bindMarkers(DIALECT.getBindMarkersFactory())
+            .build();
+        return new EntityManager(
+            configuration.sqlRenderer(DIALECT),
+            configuration.updateMapper(DIALECT, converter),
+            new R2dbcEntityTemplate(databaseClient, DIALECT, converter),
+            new SimpleMeterRegistry()
+        );
+    }
+}
@@ -0,0 +1,108 @@
+package com.developer.portfolio.benchmark;
+
+import com.developer.portfolio.config.DatabaseConfiguration;
+import com.developer.portfolio.repository.rowmapper.ColumnConverter;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.BitSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the column conversions: through the {@link ColumnConverter}, straight from the driver or with a fallback conversion,
+ * and of the {@link DatabaseConfiguration} converters on their own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+
+    private ColumnConverter converter;
+
+    private StubRow row;
+
+    private LocalDateTime localDateTime;
+
+    private BitSet bitSet;
+
+    private String uuid;
+
+    @Setup
+    public void setup() {
+        converter = BenchmarkSupport.columnConverter();
+        localDateTime = LocalDateTime.of(2024, 1, 1, 12, 0);
+        bitSet = BitSet.valueOf(new byte[] { 1 });
+        uuid = UUID.randomUUID().toString();
+        row = StubRow.of("login", "user", "created_date", localDateTime);
+    }
+
+    @Benchmark
+    public String fromRowDriver() {
+        return converter.fromRow(row, "login", String.class);
+    }
+
+    @Benchmark
+    public Instant fromRowFallback() {
+        return converter.fromRow(row, "created_date", Instant.class);
+    }
+
+    @Benchmark
+    public Long convertIdentity() {
+        return converter.convert(42L, Long.class);
+    }
+
+    @Benchmark
+    public Instant convertInstant() {
+        return converter.convert(localDateTime, Instant.class);
+    }
+
+    @Benchmark
+    public UUID convertUuid() {
+        return converter.convert(uuid, UUID.class);
+    }
+
+    @Benchmark
+    public Instant instantReadConverter() {
+        return DatabaseConfiguration.InstantReadConverter.INSTANCE.convert(localDateTime);
+    }
+
+    @Benchmark
+    public LocalDateTime instantWriteConverter() {
+        return DatabaseConfiguration.InstantWriteConverter.INSTANCE.convert(Instant.EPOCH);
+    }
+
+    @Benchmark
+    public ZonedDateTime zonedDateTimeReadConverter() {
+        return DatabaseConfiguration.ZonedDateTimeReadConverter.INSTANCE.convert(localDateTime);
+    }
+
+    @Benchmark
+    public Boolean bitSetReadConverter() {
+        return DatabaseConfiguration.BitSetReadConverter.INSTANCE.convert(bitSet);
+    }
+
+    @Benchmark
+    public Duration durationReadConverter() {
+        return DatabaseConfiguration.DurationReadConverter.INSTANCE.convert(1_000L);
+    }
+
+    @Benchmark
+    public UUID stringToUuidConverter() {
+        return DatabaseConfiguration.StringToUUIDConverter.INSTANCE.convert(uuid);
+    }
+}
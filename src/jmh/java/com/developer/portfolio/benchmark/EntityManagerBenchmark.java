@@ -0,0 +1,69 @@
+package com.developer.portfolio.benchmark;
+
+import com.developer.portfolio.domain.Portfolio;
+import com.developer.portfolio.repository.EntityManager;
+import com.developer.portfolio.repository.PortfolioSqlHelper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.relational.core.sql.Conditions;
+import org.springframework.data.relational.core.sql.SQL;
+import org.springframework.data.relational.core.sql.Select;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
+import org.springframework.data.relational.core.sql.Table;
+
+/**
+ * Cost of building the select of a page of portfolios: rendered on each call, or taken from the cache of rendered selects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityManagerBenchmark {
+
+    private static final Table TABLE = Table.aliased("portfolio", EntityManager.ENTITY_ALIAS);
+
+    private EntityManager entityManager;
+
+    private Pageable pageable;
+
+    @Setup
+    public void setup() {
+        entityManager = BenchmarkSupport.entityManager();
+        pageable = PageRequest.of(2, 20, Sort.by("id"));
+    }
+
+    private static SelectFromAndJoin selectFrom() {
+        return Select.builder().select(PortfolioSqlHelper.getColumns(TABLE, EntityManager.ENTITY_ALIAS)).from(TABLE);
+    }
+
+    @Benchmark
+    public String createSelectRendered() {
+        return entityManager.createSelect(selectFrom(), Portfolio.class, pageable, null);
+    }
+
+    @Benchmark
+    public String createSelectCached() {
+        return entityManager.createSelect("portfolio", Portfolio.class, pageable, null, EntityManagerBenchmark::selectFrom, null);
+    }
+
+    @Benchmark
+    public String createSelectCachedWithWhere() {
+        return entityManager.createSelect("portfolio", Portfolio.class, null, "id", EntityManagerBenchmark::selectFrom, () ->
+            Conditions.isEqual(TABLE.column("id"), SQL.bindMarker(":id"))
+        );
+    }
+}
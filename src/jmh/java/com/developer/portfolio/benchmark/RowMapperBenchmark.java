@@ -0,0 +1,96 @@
+package com.developer.portfolio.benchmark;
+
+import com.developer.portfolio.domain.Portfolio;
+import com.developer.portfolio.domain.User;
+import com.developer.portfolio.repository.rowmapper.ColumnConverter;
+import com.developer.portfolio.repository.rowmapper.PortfolioRowMapper;
+import com.developer.portfolio.repository.rowmapper.UserRowMapper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of mapping a row of the portfolio list and of the join with its owner: by column name, or by the indexes resolved once
+ * per result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMapperBenchmark {
+
+    private PortfolioRowMapper portfolioMapper;
+
+    private UserRowMapper userMapper;
+
+    private StubRow row;
+
+    @Setup
+    public void setup() {
+        ColumnConverter converter = BenchmarkSupport.columnConverter();
+        portfolioMapper = new PortfolioRowMapper(converter);
+        userMapper = new UserRowMapper(converter);
+        row = StubRow.of(
+            "e_id",
+            1L,
+            "e_project_name",
+            "Portfolio",
+            "e_description",
+            "A portfolio of projects, with a description long enough to look like a real one",
+            "e_image_url",
+            "https://example.com/images/portfolio.png",
+            "e_link",
+            "https://example.com/portfolio",
+            "e_version",
+            3L,
+            "e_user_id",
+            "user-1",
+            "user_id",
+            "user-1",
+            "user_login",
+            "user",
+            "user_first_name",
+            "First",
+            "user_last_name",
+            "Last",
+            "user_email",
+            "user@example.com",
+            "user_activated",
+            Boolean.TRUE,
+            "user_lang_key",
+            "en",
+            "user_image_url",
+            "https://example.com/images/user.png"
+        );
+    }
+
+    @Benchmark
+    public Portfolio portfolioByName() {
+        return portfolioMapper.apply(row, "e");
+    }
+
+    @Benchmark
+    public Portfolio portfolioByIndex() {
+        return portfolioMapper.apply(row, row.getMetadata(), "e");
+    }
+
+    @Benchmark
+    public User userByName() {
+        return userMapper.apply(row, "user");
+    }
+
+    @Benchmark
+    public User userByIndex() {
+        return userMapper.apply(row, row.getMetadata(), "user");
+    }
+}
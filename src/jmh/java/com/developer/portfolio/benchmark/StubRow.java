@@ -0,0 +1,123 @@
+package com.developer.portfolio.benchmark;
+
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import org.springframework.util.ClassUtils;
+
+/**
+ * A {@link Row} holding fixed values, so that the mapping can be measured without a database.
+ * <p>
+ * Like a driver, it only returns a value as a type it is an instance of, and rejects the others.
+ */
+final class StubRow implements Row {
+
+    private final Metadata metadata;
+    private final Object[] values;
+
+    private StubRow(Metadata metadata, Object[] values) {
+        this.metadata = metadata;
+        this.values = values;
+    }
+
+    /**
+     * @param namesAndValues the name of each column followed by its value, which must not be null.
+     * @return a row with these columns, and its own metadata.
+     */
+    static StubRow of(Object... namesAndValues) {
+        List<Column> columns = new ArrayList<>();
+        Object[] values = new Object[namesAndValues.length / 2];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = namesAndValues[2 * i + 1];
+            columns.add(new Column((String) namesAndValues[2 * i], values[i].getClass()));
+        }
+        return new StubRow(new Metadata(columns), values);
+    }
+
+    @Override
+    public RowMetadata getMetadata() {
+        return metadata;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(int index, Class<T> type) {
+        Object value = values[index];
+        if (value != null && !ClassUtils.resolvePrimitiveIfNecessary(type).isInstance(value)) {
+            throw new IllegalArgumentException("Cannot decode " + value.getClass().getName() + " as " + type.getName());
+        }
+        return (T) value;
+    }
+
+    @Override
+    public <T> T get(String name, Class<T> type) {
+        return get(metadata.indexOf(name), type);
+    }
+
+    /**
+     * The metadata of a {@link StubRow}, which is also its type.
+     */
+    record Column(String name, Class<?> javaType) implements ColumnMetadata, Type {
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Class<?> getJavaType() {
+            return javaType;
+        }
+
+        @Override
+        public Type getType() {
+            return this;
+        }
+    }
+
+    static final class Metadata implements RowMetadata {
+
+        private final List<Column> columns;
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        private Metadata(List<Column> columns) {
+            this.columns = columns;
+            for (int i = 0; i < columns.size(); i++) {
+                indexes.put(columns.get(i).name().toLowerCase(), i);
+            }
+        }
+
+        private int indexOf(String name) {
+            Integer index = indexes.get(name.toLowerCase());
+            if (index == null) {
+                throw new NoSuchElementException("Unknown column " + name);
+            }
+            return index;
+        }
+
+        @Override
+        public ColumnMetadata getColumnMetadata(int index) {
+            return columns.get(index);
+        }
+
+        @Override
+        public ColumnMetadata getColumnMetadata(String name) {
+            return columns.get(indexOf(name));
+        }
+
+        @Override
+        public List<? extends ColumnMetadata> getColumnMetadatas() {
+            return columns;
+        }
+
+        @Override
+        public boolean contains(String name) {
+            return indexes.containsKey(name.toLowerCase());
+        }
+    }
+}
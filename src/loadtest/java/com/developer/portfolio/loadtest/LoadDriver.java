@@ -0,0 +1,208 @@
+package com.developer.portfolio.loadtest;
+
+import com.developer.portfolio.domain.Portfolio;
+import com.developer.portfolio.domain.User;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Drives an open-model load: requests are started at a fixed rate, whether or not the previous ones have completed, as
+ * independent users would.
+ * <p>
+ * The latency of a request is measured from the time it was due to start, not from the time it was sent, so that a server
+ * falling behind shows in the measures instead of slowing the load down.
+ */
+final class LoadDriver {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoadDriver.class);
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final MediaType MERGE_PATCH_JSON = MediaType.valueOf("application/merge-patch+json");
+
+    /**
+     * The operations, with their weight in the mix of requests.
+     */
+    enum Operation {
+        LIST(40),
+        GET(30),
+        CREATE(10),
+        PATCH(10),
+        ACCOUNT(10);
+
+        private static final int TOTAL_WEIGHT = 100;
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+
+        private static Operation pick(SplittableRandom random) {
+            int draw = random.nextInt(TOTAL_WEIGHT);
+            for (Operation operation : values()) {
+                draw -= operation.weight;
+                if (draw < 0) {
+                    return operation;
+                }
+            }
+            throw new IllegalStateException("The weights add up to more than " + TOTAL_WEIGHT);
+        }
+    }
+
+    /**
+     * A request of the run.
+     *
+     * @param operation what the request does.
+     * @param due when the request was due to start, in {@link System#nanoTime()}.
+     * @param draw a random number, to pick the portfolio or the page of the request.
+     */
+    private record Request(Operation operation, long due, int draw) {}
+
+    /**
+     * The measures of a run.
+     *
+     * @param duration how long the requests were started for.
+     * @param latencies the latencies of the requests of each operation, in microseconds - failed requests included.
+     * @param errors the number of failed requests of each operation.
+     */
+    record Result(Duration duration, Map<Operation, Histogram> latencies, Map<Operation, Long> errors) {
+        long count() {
+            return latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+        }
+
+        long errorCount() {
+            return errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+
+    private final WebClient client;
+
+    private final LoadTestSettings settings;
+
+    private final List<Long> ids;
+
+    private final String userId;
+
+    /**
+     * @param client the client of the server, which authenticates its requests.
+     * @param settings the settings of the run.
+     * @param ids the ids of the portfolios to get and patch.
+     * @param userId the id of the owner of the created portfolios.
+     */
+    LoadDriver(WebClient client, LoadTestSettings settings, List<Long> ids, String userId) {
+        this.client = client;
+        this.settings = settings;
+        this.ids = ids;
+        this.userId = userId;
+    }
+
+    /**
+     * Run the load for a while - the requests are the same, in the same order, for the same settings.
+     *
+     * @param duration how long to start requests for.
+     * @return the measures, once all the started requests have completed.
+     */
+    Result run(Duration duration) {
+        Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(3));
+            errors.put(operation, new LongAdder());
+        }
+        SplittableRandom random = new SplittableRandom(settings.seed());
+        long period = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long start = System.nanoTime();
+
+        Flux.interval(Duration.ofNanos(period))
+            .take(duration.toNanos() / period)
+            // the ticks are sequential: the mix only depends on the seed
+            .map(tick -> new Request(Operation.pick(random), start + (tick + 1) * period, random.nextInt(Integer.MAX_VALUE)))
+            .flatMap(
+                request ->
+                    send(request).doOnNext(success -> {
+                        latencies.get(request.operation()).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - request.due()));
+                        if (!success) {
+                            errors.get(request.operation()).increment();
+                        }
+                    }),
+                Integer.MAX_VALUE
+            )
+            .blockLast();
+
+        Map<Operation, Long> errorCounts = new EnumMap<>(Operation.class);
+        errors.forEach((operation, count) -> errorCounts.put(operation, count.sum()));
+        return new Result(duration, Collections.unmodifiableMap(latencies), Collections.unmodifiableMap(errorCounts));
+    }
+
+    /**
+     * @return whether the request succeeded - it fails on an error status, or if it can't complete in time.
+     */
+    private Mono<Boolean> send(Request request) {
+        return prepare(request)
+            .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()))
+            .timeout(TIMEOUT)
+            .map(status -> {
+                if (!status.is2xxSuccessful()) {
+                    LOG.debug("{} failed with status {}", request.operation(), status);
+                }
+                return status.is2xxSuccessful();
+            })
+            .onErrorResume(e -> {
+                LOG.debug("{} failed: {}", request.operation(), e.toString());
+                return Mono.just(false);
+            });
+    }
+
+    private WebClient.RequestHeadersSpec<?> prepare(Request request) {
+        Long id = ids.get(request.draw() % ids.size());
+        return switch (request.operation()) {
+            case LIST -> client
+                .get()
+                .uri("/api/portfolios?page={page}&size={size}", request.draw() % (ids.size() / PAGE_SIZE + 1), PAGE_SIZE)
+                .accept(MediaType.APPLICATION_JSON);
+            case GET -> client.get().uri("/api/portfolios/{id}", id).accept(MediaType.APPLICATION_JSON);
+            case CREATE -> client
+                .post()
+                .uri("/api/portfolios")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(portfolio(request.draw(), userId));
+            case PATCH -> client
+                .patch()
+                .uri("/api/portfolios/{id}", id)
+                .contentType(MERGE_PATCH_JSON)
+                .bodyValue(new Portfolio().id(id).description("Patched by the load test " + request.draw()));
+            case ACCOUNT -> client.get().uri("/api/account").accept(MediaType.APPLICATION_JSON);
+        };
+    }
+
+    /**
+     * @return a valid portfolio, owned by the given user.
+     */
+    static Portfolio portfolio(int number, String userId) {
+        User user = new User();
+        user.setId(userId);
+        return new Portfolio()
+            .projectName("Load test " + number)
+            .description("Created by the load test " + number)
+            .imageUrl("https://example.com/images/" + number + ".png")
+            .link("https://example.com/" + number)
+            .user(user);
+    }
+}
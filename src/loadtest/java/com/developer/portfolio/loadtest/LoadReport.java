@@ -0,0 +1,122 @@
+package com.developer.portfolio.loadtest;
+
+import com.developer.portfolio.loadtest.LoadDriver.Operation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the report of a load test run, in a directory named after the commit measured:
+ * <ul>
+ *     <li>{@code summary.json}: the commit, the JVM, the settings, and the throughput and latency percentiles of each operation.</li>
+ *     <li>{@code <operation>.hgrm}: the percentile distribution of the latencies of each operation, in milliseconds - which the
+ *     HdrHistogram plotter can compare across runs.</li>
+ * </ul>
+ */
+final class LoadReport {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoadReport.class);
+
+    private static final double MICROS_PER_MILLI = 1_000.0;
+
+    private LoadReport() {}
+
+    /**
+     * @return the directory of the report.
+     */
+    static Path write(LoadTestSettings settings, LoadDriver.Result result) throws IOException {
+        Properties git = gitProperties();
+        Path dir = settings.reportDir().resolve(git.getProperty("git.commit.id.abbrev", "unknown"));
+        Files.createDirectories(dir);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("commit", git.getProperty("git.commit.id.describe", "unknown"));
+        summary.put("branch", git.getProperty("git.branch", "unknown"));
+        summary.put("date", Instant.now().toString());
+        summary.put("jvm", jvm());
+        summary.put("settings", settings(settings));
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            Histogram latencies = result.latencies().get(operation);
+            operations.put(operation.name().toLowerCase(), operation(latencies, result.errors().get(operation), result));
+            Path distribution = dir.resolve(operation.name().toLowerCase() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(distribution), true, StandardCharsets.UTF_8)) {
+                latencies.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+        summary.put("operations", operations);
+        summary.put("throughput", throughput(result.count(), result));
+        summary.put("errors", result.errorCount());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(dir.resolve("summary.json").toFile(), summary);
+
+        LOG.info("{} requests in {}, {} errors - report in {}", result.count(), result.duration(), result.errorCount(), dir);
+        return dir;
+    }
+
+    private static Map<String, Object> operation(Histogram latencies, long errors, LoadDriver.Result result) {
+        Map<String, Object> operation = new LinkedHashMap<>();
+        operation.put("count", latencies.getTotalCount());
+        operation.put("errors", errors);
+        operation.put("throughput", throughput(latencies.getTotalCount(), result));
+        Map<String, Object> millis = new LinkedHashMap<>();
+        millis.put("mean", latencies.getMean() / MICROS_PER_MILLI);
+        millis.put("p50", latencies.getValueAtPercentile(50) / MICROS_PER_MILLI);
+        millis.put("p90", latencies.getValueAtPercentile(90) / MICROS_PER_MILLI);
+        millis.put("p99", latencies.getValueAtPercentile(99) / MICROS_PER_MILLI);
+        millis.put("p99.9", latencies.getValueAtPercentile(99.9) / MICROS_PER_MILLI);
+        millis.put("max", latencies.getMaxValue() / MICROS_PER_MILLI);
+        operation.put("latencyMillis", millis);
+        return operation;
+    }
+
+    /**
+     * @return the number of requests completed per second.
+     */
+    private static double throughput(long count, LoadDriver.Result result) {
+        return count * 1_000.0 / result.duration().toMillis();
+    }
+
+    private static Map<String, Object> settings(LoadTestSettings settings) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("rate", settings.rate());
+        map.put("warmup", settings.warmup().toString());
+        map.put("duration", settings.duration().toString());
+        map.put("seed", settings.seed());
+        map.put("portfolios", settings.portfolios());
+        return map;
+    }
+
+    private static Map<String, Object> jvm() {
+        Runtime runtime = Runtime.getRuntime();
+        Map<String, Object> jvm = new LinkedHashMap<>();
+        jvm.put("version", System.getProperty("java.vm.version"));
+        jvm.put("vendor", System.getProperty("java.vm.vendor"));
+        jvm.put("processors", runtime.availableProcessors());
+        jvm.put("maxMemory", runtime.maxMemory());
+        return jvm;
+    }
+
+    /**
+     * @return the {@code git.properties} generated by the build, or nothing if the build ran outside of a git repository.
+     */
+    private static Properties gitProperties() throws IOException {
+        Properties git = new Properties();
+        try (InputStream in = LoadReport.class.getResourceAsStream("/git.properties")) {
+            if (in != null) {
+                git.load(in);
+            }
+        }
+        return git;
+    }
+}
@@ -0,0 +1,29 @@
+package com.developer.portfolio.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * The settings of a load test run, given as system properties by the {@code loadtest} Maven profile.
+ * <p>
+ * Two runs can only be compared if they have the same settings: they are written with the report.
+ *
+ * @param rate the number of requests started per second, whatever the response times.
+ * @param warmup how long to run before measuring.
+ * @param duration how long to measure.
+ * @param seed the seed of the requests mix, so that runs send the same requests in the same order.
+ * @param portfolios the number of portfolios in the database before the run.
+ * @param reportDir where to write the report.
+ */
+record LoadTestSettings(int rate, Duration warmup, Duration duration, long seed, int portfolios, Path reportDir) {
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+            Integer.getInteger("loadtest.rate", 200),
+            Duration.parse(System.getProperty("loadtest.warmup", "PT10S")),
+            Duration.parse(System.getProperty("loadtest.duration", "PT30S")),
+            Long.getLong("loadtest.seed", 42L),
+            Integer.getInteger("loadtest.portfolios", 1_000),
+            Path.of(System.getProperty("loadtest.report-dir", "target/loadtest"))
+        );
+    }
+}
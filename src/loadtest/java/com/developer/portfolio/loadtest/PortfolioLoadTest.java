@@ -0,0 +1,124 @@
+package com.developer.portfolio.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import com.developer.portfolio.PortfolioApp;
+import com.developer.portfolio.config.EmbeddedSQL;
+import com.developer.portfolio.config.JacksonConfiguration;
+import com.developer.portfolio.config.TestSecurityConfiguration;
+import com.developer.portfolio.domain.Portfolio;
+import com.developer.portfolio.domain.User;
+import com.developer.portfolio.repository.PortfolioRepository;
+import com.developer.portfolio.repository.UserRepository;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Load test of the portfolios and of the account, through HTTP, against the whole application on the MySQL
+ * Testcontainer of the integration tests.
+ * <p>
+ * Run with the {@code loadtest} Maven profile, which gives the {@link LoadTestSettings}: the report is written in
+ * {@code target/loadtest}, see {@link LoadReport}.
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    classes = { PortfolioApp.class, JacksonConfiguration.class, TestSecurityConfiguration.class }
+)
+@ActiveProfiles("loadtest")
+@EmbeddedSQL
+class PortfolioLoadTest {
+
+    private static final String TOKEN = "loadtest";
+
+    private static final String USER_ID = "loadtest-user";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ReactiveJwtDecoder jwtDecoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Test
+    void portfoliosUnderLoad() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        when(jwtDecoder.decode(anyString())).thenReturn(Mono.just(jwt()));
+        LoadDriver driver = new LoadDriver(client(), settings, seed(settings), USER_ID);
+
+        driver.run(settings.warmup());
+        LoadDriver.Result result = driver.run(settings.duration());
+        Path report = LoadReport.write(settings, result);
+
+        assertThat(result.errorCount()).as("errors, see %s", report).isZero();
+    }
+
+    /**
+     * @return the ids of the portfolios inserted, all owned by the user of the run.
+     */
+    private List<Long> seed(LoadTestSettings settings) {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setLogin(TOKEN);
+        user.setActivated(true);
+        userRepository.save(user).block();
+
+        List<Portfolio> portfolios = IntStream.range(0, settings.portfolios())
+            .mapToObj(number -> LoadDriver.portfolio(number, USER_ID))
+            .toList();
+        return portfolioRepository.insertBatch(portfolios).map(Portfolio::getId).collectList().block();
+    }
+
+    /**
+     * @return a client sending the token of the user of the run, and the CSRF token expected with it.
+     */
+    private WebClient client() {
+        String csrf = UUID.randomUUID().toString();
+        ConnectionProvider connections = ConnectionProvider.builder("loadtest").maxConnections(1_000).pendingAcquireMaxCount(-1).build();
+        return WebClient.builder()
+            .baseUrl("http://localhost:" + port)
+            .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+            .defaultHeaders(headers -> {
+                headers.setBearerAuth(TOKEN);
+                headers.set("X-XSRF-TOKEN", csrf);
+            })
+            .defaultCookie("XSRF-TOKEN", csrf)
+            .build();
+    }
+
+    private static Jwt jwt() {
+        return Jwt.withTokenValue(TOKEN)
+            .header("alg", "none")
+            .subject(USER_ID)
+            .claim("preferred_username", TOKEN)
+            .claim("given_name", "Load")
+            .claim("family_name", "Test")
+            .claim("email", "loadtest@localhost")
+            .claim("groups", List.of("ROLE_USER"))
+            .issuedAt(Instant.now())
+            .expiresAt(Instant.now().plusSeconds(3_600))
+            .claim("langKey", "en")
+            .build();
+    }
+}
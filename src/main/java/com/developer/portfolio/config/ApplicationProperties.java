@@ -1,5 +1,8 @@
 package com.developer.portfolio.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -10,9 +13,367 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Cache cache = new Cache();
+
+    private final Bulk bulk = new Bulk();
+
+    private final Stream stream = new Stream();
+
+    private final Changes changes = new Changes();
+
+    private final Statements statements = new Statements();
+
+    private final Pool pool = new Pool();
+
+    private final Replicas replicas = new Replicas();
+
     // jhipster-needle-application-properties-property
 
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public Stream getStream() {
+        return stream;
+    }
+
+    public Changes getChanges() {
+        return changes;
+    }
+
+    public Statements getStatements() {
+        return statements;
+    }
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public Replicas getReplicas() {
+        return replicas;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
+    public static class Cache {
+
+        private final EntityCache portfolio = new EntityCache();
+
+        private final EntityCache userSync = new EntityCache();
+
+        private final EntityCache authorities = new EntityCache();
+
+        private final Invalidation invalidation = new Invalidation();
+
+        public EntityCache getPortfolio() {
+            return portfolio;
+        }
+
+        public EntityCache getUserSync() {
+            return userSync;
+        }
+
+        public EntityCache getAuthorities() {
+            return authorities;
+        }
+
+        public Invalidation getInvalidation() {
+            return invalidation;
+        }
+    }
+
+    /**
+     * Settings of the cache invalidation change-log, shared by the nodes through the database.
+     */
+    public static class Invalidation {
+
+        private boolean enabled = true;
+
+        private Duration pollInterval = Duration.ofSeconds(1);
+
+        private int batchSize = 500;
+
+        private Duration retention = Duration.ofHours(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+    }
+
+    /**
+     * Settings of an in-process, read-through entity cache.
+     */
+    public static class EntityCache {
+
+        private boolean enabled = true;
+
+        private long maximumSize = 10_000;
+
+        private Duration timeToLive = Duration.ofMinutes(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    /**
+     * Settings of the bulk endpoints.
+     */
+    public static class Bulk {
+
+        private int batchSize = 50;
+
+        private int maxItems = 1000;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxItems() {
+            return maxItems;
+        }
+
+        public void setMaxItems(int maxItems) {
+            this.maxItems = maxItems;
+        }
+    }
+
+    /**
+     * Settings of the streaming endpoints, which export whole tables.
+     */
+    public static class Stream {
+
+        private int prefetch = 256;
+
+        private int fetchSize = 256;
+
+        public int getPrefetch() {
+            return prefetch;
+        }
+
+        public void setPrefetch(int prefetch) {
+            this.prefetch = prefetch;
+        }
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    /**
+     * Settings of the change feeds, pushed to their subscribers as server-sent events.
+     */
+    public static class Changes {
+
+        private int bufferSize = 256;
+
+        private int historySize = 1000;
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getHistorySize() {
+            return historySize;
+        }
+
+        public void setHistorySize(int historySize) {
+            this.historySize = historySize;
+        }
+    }
+
+    /**
+     * Settings of the instrumentation of the SQL statements, measured by their normalized text.
+     */
+    public static class Statements {
+
+        private boolean enabled = true;
+
+        private Duration slowThreshold = Duration.ofMillis(500);
+
+        private int maximumStatements = 500;
+
+        private int top = 20;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getSlowThreshold() {
+            return slowThreshold;
+        }
+
+        public void setSlowThreshold(Duration slowThreshold) {
+            this.slowThreshold = slowThreshold;
+        }
+
+        public int getMaximumStatements() {
+            return maximumStatements;
+        }
+
+        public void setMaximumStatements(int maximumStatements) {
+            this.maximumStatements = maximumStatements;
+        }
+
+        public int getTop() {
+            return top;
+        }
+
+        public void setTop(int top) {
+            this.top = top;
+        }
+    }
+
+    /**
+     * Settings of the connection pool on top of {@code spring.r2dbc.pool}, which sizes it.
+     */
+    public static class Pool {
+
+        private boolean warmUp = true;
+
+        private Duration warmUpTimeout = Duration.ofSeconds(30);
+
+        public boolean isWarmUp() {
+            return warmUp;
+        }
+
+        public void setWarmUp(boolean warmUp) {
+            this.warmUp = warmUp;
+        }
+
+        public Duration getWarmUpTimeout() {
+            return warmUpTimeout;
+        }
+
+        public void setWarmUpTimeout(Duration warmUpTimeout) {
+            this.warmUpTimeout = warmUpTimeout;
+        }
+    }
+
+    /**
+     * Settings of the read replicas of the database, pooled as configured by {@code spring.r2dbc.pool}: without any url, all
+     * the connections go to the primary.
+     */
+    public static class Replicas {
+
+        private List<String> urls = new ArrayList<>();
+
+        private String username;
+
+        private String password;
+
+        private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+        private Duration healthCheckInterval = Duration.ofSeconds(10);
+
+        public List<String> getUrls() {
+            return urls;
+        }
+
+        public void setUrls(List<String> urls) {
+            this.urls = urls;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public Duration getReadYourWritesWindow() {
+            return readYourWritesWindow;
+        }
+
+        public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+            this.readYourWritesWindow = readYourWritesWindow;
+        }
+
+        public Duration getHealthCheckInterval() {
+            return healthCheckInterval;
+        }
+
+        public void setHealthCheckInterval(Duration healthCheckInterval) {
+            this.healthCheckInterval = healthCheckInterval;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
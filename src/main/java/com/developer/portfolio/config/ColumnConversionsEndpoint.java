@@ -0,0 +1,27 @@
+package com.developer.portfolio.config;
+
+import com.developer.portfolio.repository.rowmapper.ColumnConverter;
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Management endpoint exposing the conversion plans learned by the {@link ColumnConverter}, to spot the columns which still
+ * go through the slow conversion path.
+ */
+@Component
+@Endpoint(id = "columnconversions")
+public class ColumnConversionsEndpoint {
+
+    private final ColumnConverter columnConverter;
+
+    public ColumnConversionsEndpoint(ColumnConverter columnConverter) {
+        this.columnConverter = columnConverter;
+    }
+
+    @ReadOperation
+    public List<ColumnConverter.ColumnPlan> plans() {
+        return columnConverter.getPlans();
+    }
+}
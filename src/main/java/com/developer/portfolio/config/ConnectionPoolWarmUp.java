@@ -0,0 +1,83 @@
+package com.developer.portfolio.config;
+
+import com.developer.portfolio.repository.ReadWriteRoutingConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Opens the initial connections of the pool while the application starts, so that the first requests after a deploy don't pay
+ * for establishing them.
+ * <p>
+ * Spring Boot only reports the application as ready to accept traffic once its runners have completed. If the warm-up fails,
+ * the application starts anyway, and the connections are opened on demand.
+ */
+@Component
+public class ConnectionPoolWarmUp implements ApplicationRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectionPoolWarmUp.class);
+
+    private final ConnectionFactory connectionFactory;
+
+    private final ApplicationProperties.Pool properties;
+
+    public ConnectionPoolWarmUp(ConnectionFactory connectionFactory, ApplicationProperties applicationProperties) {
+        this.connectionFactory = connectionFactory;
+        this.properties = applicationProperties.getPool();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isWarmUp()) {
+            return;
+        }
+        warmUp("primary", connectionFactory);
+        if (unwrapRouting(connectionFactory) instanceof ReadWriteRoutingConnectionFactory routing) {
+            List<ConnectionFactory> replicas = routing.getReplicas();
+            for (int i = 0; i < replicas.size(); i++) {
+                warmUp("replica-" + i, replicas.get(i));
+            }
+        }
+    }
+
+    private void warmUp(String name, ConnectionFactory connectionFactory) {
+        ConnectionPool pool = pool(connectionFactory);
+        if (pool == null) {
+            return;
+        }
+        try {
+            Integer opened = pool.warmup().block(properties.getWarmUpTimeout());
+            LOG.info("Connection pool {} warmed up, {} connections opened", name, opened);
+        } catch (RuntimeException e) {
+            LOG.warn("Connection pool {} warm-up failed, the connections will be opened on demand: {}", name, e.getMessage());
+        }
+    }
+
+    private static Object unwrapRouting(Object connectionFactory) {
+        Object unwrapped = connectionFactory;
+        while (!(unwrapped instanceof ReadWriteRoutingConnectionFactory) && unwrapped instanceof Wrapped<?> wrapped) {
+            if (wrapped.unwrap() == unwrapped) {
+                break;
+            }
+            unwrapped = wrapped.unwrap();
+        }
+        return unwrapped;
+    }
+
+    /**
+     * @return the pool behind the connection factory, or null if it has none.
+     */
+    static ConnectionPool pool(Object connectionFactory) {
+        Object unwrapped = connectionFactory;
+        while (!(unwrapped instanceof ConnectionPool) && unwrapped instanceof Wrapped<?> wrapped && wrapped.unwrap() != unwrapped) {
+            unwrapped = wrapped.unwrap();
+        }
+        return unwrapped instanceof ConnectionPool pool ? pool : null;
+    }
+}
@@ -1,5 +1,11 @@
 package com.developer.portfolio.config;
 
+import com.developer.portfolio.repository.ReadWriteRoutingConnectionFactory;
+import com.developer.portfolio.repository.StatementMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
 import io.r2dbc.spi.ConnectionFactory;
 import java.time.Duration;
 import java.time.Instant;
@@ -10,6 +16,12 @@ import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.PropertyMapper;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
@@ -23,6 +35,7 @@ import org.springframework.data.r2dbc.query.UpdateMapper;
 import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
 import org.springframework.data.relational.core.dialect.RenderContextFactory;
 import org.springframework.data.relational.core.sql.render.SqlRenderer;
+import org.springframework.transaction.ReactiveTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 @Configuration
@@ -73,6 +86,93 @@ public class DatabaseConfiguration {
         return R2dbcCustomConversions.of(dialect, converters);
     }
 
+    /**
+     * Route the reads of the connection factories to the replicas, if there are any, and instrument them so that every
+     * statement is measured by the {@link StatementMetrics}.
+     */
+    @Bean
+    public static BeanPostProcessor connectionFactoryPostProcessor(
+        ObjectProvider<StatementMetrics> statementMetrics,
+        ObjectProvider<ApplicationProperties> applicationProperties,
+        ObjectProvider<R2dbcProperties> r2dbcProperties,
+        ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ConnectionFactory connectionFactory) {
+                    ConnectionFactory routed = routeReadsToReplicas(
+                        connectionFactory,
+                        applicationProperties.getObject().getReplicas(),
+                        r2dbcProperties.getObject(),
+                        meterRegistry.getObject()
+                    );
+                    return statementMetrics.getObject().instrument(routed);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * @return the primary, or a factory routing the reads to the replicas if there are any.
+     */
+    private static ConnectionFactory routeReadsToReplicas(
+        ConnectionFactory primary,
+        ApplicationProperties.Replicas replicas,
+        R2dbcProperties r2dbcProperties,
+        MeterRegistry meterRegistry
+    ) {
+        if (replicas.getUrls().isEmpty() || primary instanceof ReadWriteRoutingConnectionFactory) {
+            return primary;
+        }
+        List<ConnectionFactory> pools = new ArrayList<>();
+        for (String url : replicas.getUrls()) {
+            String name = "replica-" + pools.size();
+            ConnectionPool pool = replicaPool(name, url, replicas, r2dbcProperties);
+            new ConnectionPoolMetrics(pool, name, Tags.empty()).bindTo(meterRegistry);
+            pools.add(pool);
+        }
+        return new ReadWriteRoutingConnectionFactory(
+            primary,
+            pools,
+            replicas.getReadYourWritesWindow(),
+            replicas.getHealthCheckInterval(),
+            meterRegistry
+        );
+    }
+
+    /**
+     * @return a pool of connections to a replica, sized like the pool of the primary.
+     */
+    private static ConnectionPool replicaPool(String name, String url, ApplicationProperties.Replicas replicas, R2dbcProperties r2dbc) {
+        ConnectionFactory connectionFactory = ConnectionFactoryBuilder.withUrl(url)
+            .username(replicas.getUsername() != null ? replicas.getUsername() : r2dbc.getUsername())
+            .password(replicas.getPassword() != null ? replicas.getPassword() : r2dbc.getPassword())
+            .build();
+        R2dbcProperties.Pool pool = r2dbc.getPool();
+        ConnectionPoolConfiguration.Builder builder = ConnectionPoolConfiguration.builder(connectionFactory).name(name);
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        map.from(pool.getInitialSize()).to(builder::initialSize);
+        map.from(pool.getMaxSize()).to(builder::maxSize);
+        map.from(pool.getMaxIdleTime()).to(builder::maxIdleTime);
+        map.from(pool.getMaxLifeTime()).to(builder::maxLifeTime);
+        map.from(pool.getMaxAcquireTime()).to(builder::maxAcquireTime);
+        map.from(pool.getMaxCreateConnectionTime()).to(builder::maxCreateConnectionTime);
+        map.from(pool.getMaxValidationTime()).to(builder::maxValidationTime);
+        map.from(pool.getValidationQuery()).whenHasText().to(builder::validationQuery);
+        map.from(pool.getValidationDepth()).to(builder::validationDepth);
+        return new ConnectionPool(builder.build());
+    }
+
+    /**
+     * The transaction manager, telling the read-only transactions to the routing connection factory.
+     */
+    @Bean
+    public ReactiveTransactionManager connectionFactoryTransactionManager(ConnectionFactory connectionFactory) {
+        return new ReadWriteRoutingConnectionFactory.ReadOnlyTransactionManager(connectionFactory);
+    }
+
     @Bean
     public R2dbcDialect dialect(ConnectionFactory connectionFactory) {
         return DialectResolver.getDialect(connectionFactory);
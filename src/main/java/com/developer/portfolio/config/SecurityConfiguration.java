@@ -7,14 +7,14 @@ import static org.springframework.security.web.server.util.matcher.ServerWebExch
 import com.developer.portfolio.security.AuthoritiesConstants;
 import com.developer.portfolio.security.SecurityUtils;
 import com.developer.portfolio.security.oauth2.AudienceValidator;
+import com.developer.portfolio.security.oauth2.UserInfoCache;
 import com.developer.portfolio.web.filter.SpaWebFilter;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
 import org.springframework.beans.factory.annotation.Value;
@@ -66,17 +66,20 @@ public class SecurityConfiguration {
 
     private final ReactiveClientRegistrationRepository clientRegistrationRepository;
 
-    // See https://github.com/jhipster/generator-jhipster/issues/18868
-    // We don't use a distributed cache or the user selected cache implementation here on purpose
-    private final Cache<String, Mono<Jwt>> users = Caffeine.newBuilder()
-        .maximumSize(10_000)
-        .expireAfterWrite(Duration.ofHours(1))
-        .recordStats()
-        .build();
+    private static final Duration USER_INFO_REFRESH_AFTER = Duration.ofHours(1);
 
-    public SecurityConfiguration(ReactiveClientRegistrationRepository clientRegistrationRepository, JHipsterProperties jHipsterProperties) {
+    private static final Duration USER_INFO_EXPIRE_AFTER = USER_INFO_REFRESH_AFTER.multipliedBy(3);
+
+    private final MeterRegistry meterRegistry;
+
+    public SecurityConfiguration(
+        ReactiveClientRegistrationRepository clientRegistrationRepository,
+        JHipsterProperties jHipsterProperties,
+        MeterRegistry meterRegistry
+    ) {
         this.clientRegistrationRepository = clientRegistrationRepository;
         this.jHipsterProperties = jHipsterProperties;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
@@ -221,6 +224,15 @@ public class SecurityConfiguration {
 
         jwtDecoder.setJwtValidator(withAudience);
 
+        // See https://github.com/jhipster/generator-jhipster/issues/18868
+        // We don't use a distributed cache or the user selected cache implementation here on purpose
+        UserInfoCache users = new UserInfoCache(
+            token -> fetchUserInfo(userInfoUri, token),
+            USER_INFO_REFRESH_AFTER,
+            USER_INFO_EXPIRE_AFTER,
+            meterRegistry
+        );
+
         return new ReactiveJwtDecoder() {
             @Override
             public Mono<Jwt> decode(String token) throws JwtException {
@@ -232,42 +244,45 @@ public class SecurityConfiguration {
                 if (jwt.hasClaim("given_name") && jwt.hasClaim("family_name")) {
                     return Mono.just(jwt);
                 }
-                // Get user info from `users` cache if present
-                return Optional.ofNullable(users.getIfPresent(jwt.getSubject())).orElseGet(() -> // Retrieve user info from OAuth provider if not already loaded
-                    WebClient.create()
-                        .get()
-                        .uri(userInfoUri)
-                        .headers(headers -> headers.setBearerAuth(token))
-                        .retrieve()
-                        .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
-                        .map(userInfo ->
-                            Jwt.withTokenValue(jwt.getTokenValue())
-                                .subject(jwt.getSubject())
-                                .audience(jwt.getAudience())
-                                .headers(headers -> headers.putAll(jwt.getHeaders()))
-                                .claims(claims -> {
-                                    String username = userInfo.get("preferred_username").toString();
-                                    // special handling for Auth0
-                                    if (userInfo.get("sub").toString().contains("|") && username.contains("@")) {
-                                        userInfo.put("email", username);
-                                    }
-                                    // Allow full name in a name claim - happens with Auth0
-                                    if (userInfo.get("name") != null) {
-                                        String[] name = userInfo.get("name").toString().split("\\s+");
-                                        if (name.length > 0) {
-                                            userInfo.put("given_name", name[0]);
-                                            userInfo.put("family_name", String.join(" ", Arrays.copyOfRange(name, 1, name.length)));
-                                        }
-                                    }
-                                    claims.putAll(userInfo);
-                                })
-                                .claims(claims -> claims.putAll(jwt.getClaims()))
-                                .build()
-                        )
-                        // Put user info into the `users` cache
-                        .doOnNext(newJwt -> users.put(jwt.getSubject(), Mono.just(newJwt)))
-                );
+                // Get user info from the `users` cache, which retrieves it from the OAuth provider if not already loaded
+                return users
+                    .get(jwt.getSubject(), token)
+                    .map(userInfo ->
+                        Jwt.withTokenValue(jwt.getTokenValue())
+                            .subject(jwt.getSubject())
+                            .audience(jwt.getAudience())
+                            .headers(headers -> headers.putAll(jwt.getHeaders()))
+                            .claims(claims -> claims.putAll(userInfo))
+                            .claims(claims -> claims.putAll(jwt.getClaims()))
+                            .build()
+                    );
             }
         };
     }
+
+    private static Mono<Map<String, Object>> fetchUserInfo(String userInfoUri, String token) {
+        return WebClient.create()
+            .get()
+            .uri(userInfoUri)
+            .headers(headers -> headers.setBearerAuth(token))
+            .retrieve()
+            .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+            .map(userInfo -> {
+                String username = userInfo.get("preferred_username").toString();
+                // special handling for Auth0
+                if (userInfo.get("sub").toString().contains("|") && username.contains("@")) {
+                    userInfo.put("email", username);
+                }
+                // Allow full name in a name claim - happens with Auth0
+                if (userInfo.get("name") != null) {
+                    String[] name = userInfo.get("name").toString().split("\\s+");
+                    if (name.length > 0) {
+                        userInfo.put("given_name", name[0]);
+                        userInfo.put("family_name", String.join(" ", Arrays.copyOfRange(name, 1, name.length)));
+                    }
+                }
+                // the user info is shared by the requests of the user
+                return Collections.unmodifiableMap(userInfo);
+            });
+    }
 }
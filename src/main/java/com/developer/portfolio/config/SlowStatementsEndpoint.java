@@ -0,0 +1,27 @@
+package com.developer.portfolio.config;
+
+import com.developer.portfolio.repository.StatementMetrics;
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Management endpoint exposing the SQL statements which took the longest, as measured by the {@link StatementMetrics}, with
+ * the id tagging their metrics.
+ */
+@Component
+@Endpoint(id = "slowstatements")
+public class SlowStatementsEndpoint {
+
+    private final StatementMetrics statementMetrics;
+
+    public SlowStatementsEndpoint(StatementMetrics statementMetrics) {
+        this.statementMetrics = statementMetrics;
+    }
+
+    @ReadOperation
+    public List<StatementMetrics.Summary> slowest() {
+        return statementMetrics.getSlowest();
+    }
+}
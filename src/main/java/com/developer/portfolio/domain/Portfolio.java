@@ -1,8 +1,11 @@
 package com.developer.portfolio.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
 import org.springframework.data.annotation.Transient;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
@@ -11,6 +14,7 @@ import org.springframework.data.relational.core.mapping.Table;
  * A Portfolio.
  */
 @Table("portfolio")
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Portfolio implements Serializable {
 
@@ -46,6 +50,14 @@ public class Portfolio implements Serializable {
     @Column("user_id")
     private String userId;
 
+    /**
+     * Row version, only incremented by the update statements of the repository - exposed as ETag rather than in the body.
+     */
+    @JsonIgnore
+    @ReadOnlyProperty
+    @Column("version")
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -135,6 +147,19 @@ public class Portfolio implements Serializable {
         this.userId = user;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Portfolio version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -56,6 +56,14 @@ public class User extends AbstractAuditingEntity<String> implements Serializable
     @Column("image_url")
     private String imageUrl;
 
+    /**
+     * Hash of the identity provider claims the user was last synchronized with.
+     */
+    @JsonIgnore
+    @Size(max = 64)
+    @Column("sync_fingerprint")
+    private String syncFingerprint;
+
     @JsonIgnore
     @Transient
     private Set<Authority> authorities = new HashSet<>();
@@ -128,6 +136,14 @@ public class User extends AbstractAuditingEntity<String> implements Serializable
         this.langKey = langKey;
     }
 
+    public String getSyncFingerprint() {
+        return syncFingerprint;
+    }
+
+    public void setSyncFingerprint(String syncFingerprint) {
+        this.syncFingerprint = syncFingerprint;
+    }
+
     public Set<Authority> getAuthorities() {
         return authorities;
     }
@@ -0,0 +1,48 @@
+package com.developer.portfolio.repository;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Propagates cache invalidations between the nodes of the application, so an entry written on one node is evicted from the
+ * in-process caches of the others.
+ */
+public interface CacheInvalidationBus {
+    /**
+     * Key invalidating the whole cache.
+     */
+    String ALL_KEYS = "*";
+
+    /**
+     * Announce that an entry changed - to be called once the write is done, within its transaction if any: the invalidation is
+     * then published once the transaction is committed, never if it is rolled back.
+     * @param cacheName the name of the cache holding the entry.
+     * @param key the key of the entry, or {@link #ALL_KEYS}.
+     * @return a {@link Mono} completing once the invalidation is published, or registered to be.
+     */
+    Mono<Void> publish(String cacheName, String key);
+
+    /**
+     * Announce that several entries of the same cache changed, with a single write.
+     * @param cacheName the name of the cache holding the entries.
+     * @param keys the keys of the entries.
+     * @return a {@link Mono} completing once the invalidations are published, or registered to be.
+     */
+    Mono<Void> publish(String cacheName, Collection<String> keys);
+
+    /**
+     * Register a listener, called with the key of every invalidation published for the cache.
+     * @param cacheName the name of the cache.
+     * @param listener evicts the given key, or everything for {@link #ALL_KEYS}.
+     */
+    void subscribe(String cacheName, Consumer<String> listener);
+
+    /**
+     * Register a listener, called with the key of every invalidation published for the cache by the other nodes - for a cache
+     * which already applies the changes made on this node.
+     * @param cacheName the name of the cache.
+     * @param listener evicts the given key, or everything for {@link #ALL_KEYS}.
+     */
+    void subscribeRemote(String cacheName, Consumer<String> listener);
+}
@@ -0,0 +1,208 @@
+package com.developer.portfolio.repository;
+
+import com.developer.portfolio.config.ApplicationProperties;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * {@link CacheInvalidationBus} backed by the {@code cache_invalidation} table: writes append a row, and every node polls the
+ * rows appended since its last poll, by sequence number and in batches. Each row holds the id of the node which published it,
+ * random for every instance of the bus.
+ * <p>
+ * The invalidations of a transaction are inserted once it is committed, on their own connection: inserted within it, their
+ * sequence number would be taken long before the commit makes them visible, and the other nodes could poll past it in between.
+ * Two concurrent inserts may still commit out of order, so the staleness is bounded by the time-to-live of the caches.
+ */
+@Component
+public class DatabaseCacheInvalidationBus implements CacheInvalidationBus {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DatabaseCacheInvalidationBus.class);
+
+    private final DatabaseClient db;
+    private final ApplicationProperties.Invalidation properties;
+    private final Map<String, List<Listener>> listeners = new ConcurrentHashMap<>();
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * The last sequence number processed, or -1 until the first poll - a starting node has nothing cached yet, so it begins
+     * with the latest entry.
+     */
+    private final AtomicLong lastSeq = new AtomicLong(-1);
+
+    public DatabaseCacheInvalidationBus(DatabaseClient db, ApplicationProperties applicationProperties) {
+        this.db = db;
+        this.properties = applicationProperties.getCache().getInvalidation();
+    }
+
+    @Override
+    public Mono<Void> publish(String cacheName, String key) {
+        return publish(cacheName, List.of(key));
+    }
+
+    @Override
+    public Mono<Void> publish(String cacheName, Collection<String> keys) {
+        if (!properties.isEnabled() || keys.isEmpty()) {
+            return Mono.empty();
+        }
+        List<String> published = List.copyOf(keys);
+        return afterCommit(Mono.defer(() -> insert(cacheName, published)));
+    }
+
+    private Mono<Void> insert(String cacheName, List<String> keys) {
+        // a single multi-row insert, the keys being bound as key0, key1...
+        StringJoiner rows = new StringJoiner(
+            ", ",
+            "INSERT INTO cache_invalidation (cache_name, entity_key, created_date, node_id) VALUES ",
+            ""
+        );
+        for (int i = 0; i < keys.size(); i++) {
+            rows.add("(:cacheName, :key" + i + ", :createdDate, :nodeId)");
+        }
+        DatabaseClient.GenericExecuteSpec insert = db
+            .sql(rows.toString())
+            .bind("cacheName", cacheName)
+            .bind("createdDate", LocalDateTime.now(ZoneOffset.UTC))
+            .bind("nodeId", nodeId);
+        for (int i = 0; i < keys.size(); i++) {
+            insert = insert.bind("key" + i, keys.get(i));
+        }
+        return insert.then();
+    }
+
+    /**
+     * Run the insert once the current transaction, if any, is committed - never if it is rolled back.
+     */
+    private Mono<Void> afterCommit(Mono<Void> insert) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+            .filter(TransactionSynchronizationManager::isSynchronizationActive)
+            .doOnNext(synchronizationManager ->
+                synchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCommit() {
+                            // outside of the completing transaction, whose connection is about to be released
+                            return insert
+                                .contextWrite(context -> Context.empty())
+                                .onErrorResume(e -> {
+                                    LOG.warn("Could not publish the cache invalidations: {}", e.getMessage());
+                                    return Mono.empty();
+                                });
+                        }
+                    }
+                )
+            )
+            .switchIfEmpty(insert.then(Mono.empty()))
+            .onErrorResume(NoTransactionException.class, e -> insert.then(Mono.empty()))
+            .then();
+    }
+
+    @Override
+    public void subscribe(String cacheName, Consumer<String> listener) {
+        listeners.computeIfAbsent(cacheName, name -> new CopyOnWriteArrayList<>()).add(new Listener(listener, false));
+    }
+
+    @Override
+    public void subscribeRemote(String cacheName, Consumer<String> listener) {
+        listeners.computeIfAbsent(cacheName, name -> new CopyOnWriteArrayList<>()).add(new Listener(listener, true));
+    }
+
+    private record Listener(Consumer<String> consumer, boolean remoteOnly) {}
+
+    /**
+     * Evict locally all the entries invalidated since the previous poll.
+     * @return a {@link Mono} completing once all the pending invalidations are applied.
+     */
+    @Scheduled(fixedDelayString = "${application.cache.invalidation.poll-interval:PT1S}")
+    public Mono<Void> poll() {
+        if (!properties.isEnabled()) {
+            return Mono.empty();
+        }
+        return start()
+            .then(pollBatch().expand(count -> count == properties.getBatchSize() ? pollBatch() : Mono.empty()).then())
+            .onErrorResume(e -> {
+                LOG.warn("Could not poll the cache invalidations: {}", e.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    private Mono<Long> start() {
+        if (lastSeq.get() >= 0) {
+            return Mono.just(lastSeq.get());
+        }
+        return db
+            .sql("SELECT COALESCE(MAX(seq), 0) AS seq FROM cache_invalidation")
+            .map(row -> row.get("seq", Long.class))
+            .one()
+            .doOnNext(seq -> lastSeq.compareAndSet(-1, seq));
+    }
+
+    private Mono<Long> pollBatch() {
+        return db
+            .sql("SELECT seq, cache_name, entity_key, node_id FROM cache_invalidation WHERE seq > :seq ORDER BY seq LIMIT :limit")
+            .bind("seq", lastSeq.get())
+            .bind("limit", properties.getBatchSize())
+            .map(row -> {
+                dispatch(
+                    row.get("cache_name", String.class),
+                    row.get("entity_key", String.class),
+                    nodeId.equals(row.get("node_id", String.class))
+                );
+                return row.get("seq", Long.class);
+            })
+            .all()
+            .doOnNext(lastSeq::set)
+            .count();
+    }
+
+    private void dispatch(String cacheName, String key, boolean local) {
+        for (Listener listener : listeners.getOrDefault(cacheName, List.of())) {
+            if (local && listener.remoteOnly()) {
+                continue;
+            }
+            try {
+                listener.consumer().accept(key);
+            } catch (RuntimeException e) {
+                LOG.warn("Could not invalidate '{}' in cache {}: {}", key, cacheName, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Remove the invalidations older than the retention, all nodes have polled them by then.
+     * @return a {@link Mono} completing once the old invalidations are removed.
+     */
+    @Scheduled(fixedDelayString = "${application.cache.invalidation.retention:PT1H}")
+    public Mono<Void> purge() {
+        if (!properties.isEnabled()) {
+            return Mono.empty();
+        }
+        return db
+            .sql("DELETE FROM cache_invalidation WHERE created_date < :before")
+            .bind("before", LocalDateTime.now(ZoneOffset.UTC).minus(properties.getRetention()))
+            .then()
+            .onErrorResume(e -> {
+                LOG.warn("Could not purge the cache invalidations: {}", e.getMessage());
+                return Mono.empty();
+            });
+    }
+}
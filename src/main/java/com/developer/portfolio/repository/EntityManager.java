@@ -1,16 +1,30 @@
 package com.developer.portfolio.repository;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
+import org.reactivestreams.Publisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.core.StatementMapper;
+import org.springframework.data.r2dbc.mapping.OutboundRow;
 import org.springframework.data.r2dbc.query.UpdateMapper;
 import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
 import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Update;
 import org.springframework.data.relational.core.sql.Column;
 import org.springframework.data.relational.core.sql.Condition;
 import org.springframework.data.relational.core.sql.OrderByField;
@@ -18,9 +32,15 @@ import org.springframework.data.relational.core.sql.Select;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoinCondition;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectOrdered;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectWhere;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.data.relational.core.sql.render.SqlRenderer;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
 import org.springframework.r2dbc.core.Parameter;
+import org.springframework.r2dbc.core.PreparedOperation;
+import org.springframework.r2dbc.core.binding.BindTarget;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 import reactor.core.publisher.Flux;
@@ -36,6 +56,19 @@ public class EntityManager {
     public static final String ENTITY_ALIAS = "e";
     public static final String ALIAS_PREFIX = "e_";
 
+    /**
+     * Names of the bind parameters holding the page size and offset in the cached selects.
+     */
+    public static final String LIMIT_PARAMETER = "page_limit";
+    public static final String OFFSET_PARAMETER = "page_offset";
+
+    private static final int SELECT_CACHE_SIZE = 256;
+
+    /**
+     * Key of a rendered select: everything which changes the SQL text, but none of the bound values.
+     */
+    private record SelectKey(Class<?> entityType, String shape, Sort sort, boolean paged, String whereShape) {}
+
     public static class LinkTable {
 
         final String tableName;
@@ -56,12 +89,62 @@ public class EntityManager {
     private final UpdateMapper updateMapper;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
     private final StatementMapper statementMapper;
+    private final Cache<SelectKey, String> selects = Caffeine.newBuilder().maximumSize(SELECT_CACHE_SIZE).recordStats().build();
 
-    public EntityManager(SqlRenderer sqlRenderer, UpdateMapper updateMapper, R2dbcEntityTemplate r2dbcEntityTemplate) {
+    public EntityManager(
+        SqlRenderer sqlRenderer,
+        UpdateMapper updateMapper,
+        R2dbcEntityTemplate r2dbcEntityTemplate,
+        MeterRegistry meterRegistry
+    ) {
         this.sqlRenderer = sqlRenderer;
         this.updateMapper = updateMapper;
         this.r2dbcEntityTemplate = r2dbcEntityTemplate;
         this.statementMapper = r2dbcEntityTemplate.getDataAccessStrategy().getStatementMapper();
+        CaffeineCacheMetrics.monitor(meterRegistry, selects, "entityManager.selects");
+    }
+
+    /**
+     * Returns the SQL select for the given shape from a bounded cache, only building and rendering the {@link Select} on a miss.
+     * <p>
+     * The cached SQL never contains values: the where condition must use named bind markers, and the page is rendered as
+     * {@code LIMIT :page_limit OFFSET :page_offset}, to be bound with {@link #bindPage(GenericExecuteSpec, Pageable)}.
+     * @param shape identifies the selected columns and joins, the supplied fragment must always be the same for a given shape.
+     * @param entityType the entity type which holds the table name.
+     * @param pageable page parameter, or null, if everything needs to be returned.
+     * @param whereShape identifies the where condition, or null if there is none.
+     * @param selectFrom supplies a representation of a select statement, only called on a miss.
+     * @param where supplies the condition matching {@code whereShape}, only called on a miss.
+     * @return sql select statement, with named bind markers.
+     */
+    public String createSelect(
+        String shape,
+        Class<?> entityType,
+        Pageable pageable,
+        String whereShape,
+        Supplier<? extends SelectWhere> selectFrom,
+        Supplier<Condition> where
+    ) {
+        boolean paged = pageable != null && pageable.isPaged();
+        Sort sort = pageable != null ? pageable.getSort() : Sort.unsorted();
+        return selects.get(new SelectKey(entityType, shape, sort, paged, whereShape), key -> {
+            SelectOrdered select = whereShape != null ? selectFrom.get().where(where.get()) : selectFrom.get();
+            String sql = createSelectImpl(select, entityType, sort);
+            return paged ? sql + " LIMIT :" + LIMIT_PARAMETER + " OFFSET :" + OFFSET_PARAMETER : sql;
+        });
+    }
+
+    /**
+     * Binds the page size and offset of a select created by {@link #createSelect(String, Class, Pageable, String, Supplier, Supplier)}.
+     * @param spec the statement to bind.
+     * @param pageable page parameter, or null, if everything needs to be returned.
+     * @return the bound statement.
+     */
+    public GenericExecuteSpec bindPage(GenericExecuteSpec spec, Pageable pageable) {
+        if (pageable == null || pageable.isUnpaged()) {
+            return spec;
+        }
+        return spec.bind(LIMIT_PARAMETER, pageable.getPageSize()).bind(OFFSET_PARAMETER, pageable.getOffset());
     }
 
     /**
@@ -167,28 +250,170 @@ public class EntityManager {
     }
 
     /**
-     * Updates the table, which links the entity with the referred entities.
+     * Inserts the given entities with a single batched statement, one binding per entity - and sets the ids, if they are
+     * autoincrement fields.
+     * <p>
+     * Unlike {@link #insert(Object)}, null values are inserted explicitly, so that all the bindings share the same SQL, and no
+     * entity callbacks are invoked.
+     * @param <S> the type of the persisted entities.
+     * @param entityType the entity type which holds the table name.
+     * @param entities the entities to be inserted into the database, without id if it's an autoincrement field.
+     * @return the persisted entities, in order - on error, the ones emitted before are inserted.
+     */
+    public <S> Flux<S> insertAll(Class<S> entityType, List<S> entities) {
+        if (entities.isEmpty()) {
+            return Flux.empty();
+        }
+        RelationalPersistentEntity<?> entity = getRequiredPersistentEntity(entityType);
+        SqlIdentifier idColumn = entity.getRequiredIdProperty().getColumnName();
+        List<PreparedOperation<?>> inserts = new ArrayList<>(entities.size());
+        for (S toInsert : entities) {
+            OutboundRow row = r2dbcEntityTemplate.getDataAccessStrategy().getOutboundRow(toInsert);
+            if (!row.get(idColumn).hasValue()) {
+                row.remove(idColumn);
+            }
+            StatementMapper.InsertSpec insert = statementMapper.createInsert(entity.getTableName());
+            for (Map.Entry<SqlIdentifier, Parameter> column : row.entrySet()) {
+                insert = insert.withColumn(column.getKey(), column.getValue());
+            }
+            inserts.add(statementMapper.getMappedObject(insert));
+        }
+        return executeBatch(
+            inserts,
+            statement -> statement.returnGeneratedValues(idColumn.getReference()),
+            (index, result) -> result.map(r2dbcEntityTemplate.getConverter().populateIdIfNecessary(entities.get(index)))
+        );
+    }
+
+    /**
+     * Updates all the columns of the given entities with a single batched statement, one binding per entity.
+     * <p>
+     * No entity callbacks are invoked, and the entities must exist: the number of updated rows is not reliable, as some
+     * databases only count the rows which actually changed.
+     * @param <S> the type of the persisted entities.
+     * @param entityType the entity type which holds the table name.
+     * @param entities the entities to be updated, with their id.
+     * @return the updated entities, in order - on error, the ones emitted before are updated.
+     */
+    public <S> Flux<S> updateAll(Class<S> entityType, List<S> entities) {
+        if (entities.isEmpty()) {
+            return Flux.empty();
+        }
+        RelationalPersistentEntity<?> entity = getRequiredPersistentEntity(entityType);
+        SqlIdentifier idColumn = entity.getRequiredIdProperty().getColumnName();
+        List<PreparedOperation<?>> updates = new ArrayList<>(entities.size());
+        for (S toUpdate : entities) {
+            OutboundRow row = r2dbcEntityTemplate.getDataAccessStrategy().getOutboundRow(toUpdate);
+            Parameter id = row.remove(idColumn);
+            Assert.isTrue(id != null && id.hasValue(), "entity to update has no id");
+            StatementMapper.UpdateSpec update = statementMapper
+                .createUpdate(entity.getTableName(), Update.from(new LinkedHashMap<SqlIdentifier, Object>(row)))
+                .withCriteria(Criteria.where(idColumn.getReference()).is(id.getValue()));
+            updates.add(statementMapper.getMappedObject(update));
+        }
+        return executeBatch(updates, statement -> statement, (index, result) ->
+            Mono.from(result.getRowsUpdated()).thenReturn(entities.get(index))
+        );
+    }
+
+    /**
+     * Executes the given operations, which must share the same SQL, as one statement with a binding per operation.
+     */
+    private <T> Flux<T> executeBatch(
+        List<PreparedOperation<?>> operations,
+        UnaryOperator<Statement> prepare,
+        BiFunction<Integer, Result, Publisher<T>> resultMapper
+    ) {
+        String sql = operations.get(0).toQuery();
+        for (PreparedOperation<?> operation : operations) {
+            if (!sql.equals(operation.toQuery())) {
+                return Flux.error(new IllegalArgumentException("All the operations of a batch must share the same SQL"));
+            }
+        }
+        return r2dbcEntityTemplate
+            .getDatabaseClient()
+            .inConnectionMany(connection -> {
+                Statement statement = prepare.apply(connection.createStatement(sql));
+                for (int i = 0; i < operations.size(); i++) {
+                    if (i > 0) {
+                        statement.add();
+                    }
+                    operations.get(i).bindTo(new StatementBindTarget(statement));
+                }
+                // the driver emits one result per binding, in order
+                return Flux.from(statement.execute())
+                    .index()
+                    .concatMap(result -> resultMapper.apply(result.getT1().intValue(), result.getT2()));
+            });
+    }
+
+    private RelationalPersistentEntity<?> getRequiredPersistentEntity(Class<?> entityType) {
+        return r2dbcEntityTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(entityType);
+    }
+
+    /**
+     * Binds the values of a {@link PreparedOperation} to a binding of a {@link Statement}.
+     */
+    private record StatementBindTarget(Statement statement) implements BindTarget {
+        @Override
+        public void bind(String identifier, Object value) {
+            statement.bind(identifier, value);
+        }
+
+        @Override
+        public void bind(int index, Object value) {
+            statement.bind(index, value);
+        }
+
+        @Override
+        public void bindNull(String identifier, Class<?> type) {
+            statement.bindNull(identifier, type);
+        }
+
+        @Override
+        public void bindNull(int index, Class<?> type) {
+            statement.bindNull(index, type);
+        }
+    }
+
+    /**
+     * Updates the table, which links the entity with the referred entities, without reading it: one delete of the links which
+     * are not referred anymore, and one multi-row insert of the referred ones, which leaves the existing links unchanged - so
+     * that concurrent updates of the same links don't conflict.
      * @param table describes the link table, it contains a table name, the column name for the id, and for the referred entity id.
      * @param entityId the id of the entity, for which the links are created.
      * @param referencedIds the id of the referred entities.
-     * @return the number of inserted rows.
+     * @return the number of rows affected, as reported by the driver.
      */
     public Mono<Long> updateLinkTable(LinkTable table, Object entityId, Stream<?> referencedIds) {
-        return deleteFromLinkTable(table, entityId).then(
-            Flux.fromStream(referencedIds)
-                .flatMap((Object referenceId) -> {
-                    StatementMapper.InsertSpec insert = r2dbcEntityTemplate
-                        .getDataAccessStrategy()
-                        .getStatementMapper()
-                        .createInsert(table.tableName)
-                        .withColumn(table.idColumn, Parameter.from(entityId))
-                        .withColumn(table.referenceColumn, Parameter.from(referenceId));
-
-                    return r2dbcEntityTemplate.getDatabaseClient().sql(statementMapper.getMappedObject(insert)).fetch().rowsUpdated();
-                })
-                .collectList()
-                .map((List<Long> updates) -> updates.stream().reduce(Long::sum).orElse(0l))
-        );
+        Assert.notNull(entityId, "entityId is null");
+        List<?> referenced = referencedIds.distinct().toList();
+        DatabaseClient db = r2dbcEntityTemplate.getDatabaseClient();
+        String delete = "DELETE FROM " + table.tableName + " WHERE " + table.idColumn + " = :id";
+        GenericExecuteSpec deleted = referenced.isEmpty()
+            ? db.sql(delete)
+            : db.sql(delete + " AND " + table.referenceColumn + " NOT IN (:referenced)").bind("referenced", referenced);
+        Mono<Long> removed = deleted.bind("id", entityId).fetch().rowsUpdated();
+        if (referenced.isEmpty()) {
+            return removed;
+        }
+        Mono<Long> added = db
+            .sql(
+                "INSERT INTO " +
+                table.tableName +
+                " (" +
+                table.idColumn +
+                ", " +
+                table.referenceColumn +
+                ") VALUES :rows ON DUPLICATE KEY UPDATE " +
+                table.referenceColumn +
+                " = " +
+                table.referenceColumn
+            )
+            .bind("rows", referenced.stream().map(referenceId -> new Object[] { entityId, referenceId }).toList())
+            .fetch()
+            .rowsUpdated();
+        return removed.flatMap(removedRows -> added.map(addedRows -> removedRows + addedRows));
     }
 
     public Mono<Void> deleteFromLinkTable(LinkTable table, Object entityId) {
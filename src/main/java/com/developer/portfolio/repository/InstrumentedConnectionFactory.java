@@ -0,0 +1,412 @@
+package com.developer.portfolio.repository;
+
+import io.r2dbc.spi.Batch;
+import io.r2dbc.spi.Closeable;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.ConnectionMetadata;
+import io.r2dbc.spi.IsolationLevel;
+import io.r2dbc.spi.Parameter;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.TransactionDefinition;
+import io.r2dbc.spi.ValidationDepth;
+import io.r2dbc.spi.Wrapped;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A {@link ConnectionFactory} reporting the acquisition of its connections and the statements run on them to the
+ * {@link StatementMetrics}.
+ * <p>
+ * A run is measured from the execution of the statement until all its results have been consumed, or cancelled - a statement
+ * with several binding sets is a single run of that batch size. The batches of statements are not measured.
+ */
+class InstrumentedConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory>, Closeable, Disposable {
+
+    private final ConnectionFactory delegate;
+
+    private final StatementMetrics metrics;
+
+    InstrumentedConnectionFactory(ConnectionFactory delegate, StatementMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Publisher<? extends Connection> create() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return Mono.from(delegate.create())
+                .doOnSuccess(connection -> metrics.recordAcquire(System.nanoTime() - start, connection != null))
+                .doOnError(e -> metrics.recordAcquire(System.nanoTime() - start, false))
+                .map(connection -> new InstrumentedConnection(connection, metrics));
+        });
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return delegate;
+    }
+
+    @Override
+    public Publisher<Void> close() {
+        return delegate instanceof Closeable closeable ? closeable.close() : Mono.empty();
+    }
+
+    /**
+     * Disposes the delegate - the pool declared by Spring Boot is destroyed this way.
+     */
+    @Override
+    public void dispose() {
+        if (delegate instanceof Disposable disposable) {
+            disposable.dispose();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return delegate instanceof Disposable disposable && disposable.isDisposed();
+    }
+
+    private static final class InstrumentedConnection implements Connection, Wrapped<Connection> {
+
+        private final Connection delegate;
+
+        private final StatementMetrics metrics;
+
+        private InstrumentedConnection(Connection delegate, StatementMetrics metrics) {
+            this.delegate = delegate;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Statement createStatement(String sql) {
+            return new InstrumentedStatement(delegate.createStatement(sql), sql, metrics);
+        }
+
+        @Override
+        public Publisher<Void> beginTransaction() {
+            return delegate.beginTransaction();
+        }
+
+        @Override
+        public Publisher<Void> beginTransaction(TransactionDefinition definition) {
+            return delegate.beginTransaction(definition);
+        }
+
+        @Override
+        public Publisher<Void> close() {
+            return delegate.close();
+        }
+
+        @Override
+        public Publisher<Void> commitTransaction() {
+            return delegate.commitTransaction();
+        }
+
+        @Override
+        public Batch createBatch() {
+            return delegate.createBatch();
+        }
+
+        @Override
+        public Publisher<Void> createSavepoint(String name) {
+            return delegate.createSavepoint(name);
+        }
+
+        @Override
+        public boolean isAutoCommit() {
+            return delegate.isAutoCommit();
+        }
+
+        @Override
+        public ConnectionMetadata getMetadata() {
+            return delegate.getMetadata();
+        }
+
+        @Override
+        public IsolationLevel getTransactionIsolationLevel() {
+            return delegate.getTransactionIsolationLevel();
+        }
+
+        @Override
+        public Publisher<Void> releaseSavepoint(String name) {
+            return delegate.releaseSavepoint(name);
+        }
+
+        @Override
+        public Publisher<Void> rollbackTransaction() {
+            return delegate.rollbackTransaction();
+        }
+
+        @Override
+        public Publisher<Void> rollbackTransactionToSavepoint(String name) {
+            return delegate.rollbackTransactionToSavepoint(name);
+        }
+
+        @Override
+        public Publisher<Void> setAutoCommit(boolean autoCommit) {
+            return delegate.setAutoCommit(autoCommit);
+        }
+
+        @Override
+        public Publisher<Void> setLockWaitTimeout(Duration timeout) {
+            return delegate.setLockWaitTimeout(timeout);
+        }
+
+        @Override
+        public Publisher<Void> setStatementTimeout(Duration timeout) {
+            return delegate.setStatementTimeout(timeout);
+        }
+
+        @Override
+        public Publisher<Void> setTransactionIsolationLevel(IsolationLevel isolationLevel) {
+            return delegate.setTransactionIsolationLevel(isolationLevel);
+        }
+
+        @Override
+        public Publisher<Boolean> validate(ValidationDepth depth) {
+            return delegate.validate(depth);
+        }
+
+        @Override
+        public Connection unwrap() {
+            return delegate;
+        }
+    }
+
+    /**
+     * A statement, which keeps the shape of its bindings: the type bound to each parameter.
+     */
+    private static final class InstrumentedStatement implements Statement {
+
+        private final Statement delegate;
+
+        private final String sql;
+
+        private final StatementMetrics metrics;
+
+        private final Map<Object, String> bindings = new LinkedHashMap<>();
+
+        private int bindingSets = 1;
+
+        private InstrumentedStatement(Statement delegate, String sql, StatementMetrics metrics) {
+            this.delegate = delegate;
+            this.sql = sql;
+            this.metrics = metrics;
+        }
+
+        private static String shape(Object value) {
+            if (value == null) {
+                return "null";
+            }
+            if (value instanceof Parameter parameter) {
+                return parameter.getValue() != null
+                    ? parameter.getValue().getClass().getSimpleName()
+                    : "null:" + parameter.getType().getJavaType().getSimpleName();
+            }
+            return value.getClass().getSimpleName();
+        }
+
+        @Override
+        public Statement add() {
+            delegate.add();
+            bindingSets++;
+            return this;
+        }
+
+        @Override
+        public Statement bind(int index, Object value) {
+            delegate.bind(index, value);
+            bindings.put(index, shape(value));
+            return this;
+        }
+
+        @Override
+        public Statement bind(String name, Object value) {
+            delegate.bind(name, value);
+            bindings.put(name, shape(value));
+            return this;
+        }
+
+        @Override
+        public Statement bindNull(int index, Class<?> type) {
+            delegate.bindNull(index, type);
+            bindings.put(index, "null:" + type.getSimpleName());
+            return this;
+        }
+
+        @Override
+        public Statement bindNull(String name, Class<?> type) {
+            delegate.bindNull(name, type);
+            bindings.put(name, "null:" + type.getSimpleName());
+            return this;
+        }
+
+        @Override
+        public Statement returnGeneratedValues(String... columns) {
+            delegate.returnGeneratedValues(columns);
+            return this;
+        }
+
+        @Override
+        public Statement fetchSize(int rows) {
+            delegate.fetchSize(rows);
+            return this;
+        }
+
+        @Override
+        public Publisher<? extends Result> execute() {
+            int batchSize = bindingSets;
+            String shape = batchSize > 1 ? bindings + " in " + batchSize + " sets" : bindings.toString();
+            return Flux.defer(() -> {
+                Run run = new Run(sql, System.nanoTime(), batchSize, shape, metrics);
+                return Flux.from(delegate.execute())
+                    .map(result -> new InstrumentedResult(result, run.part()))
+                    .doFinally(signal -> run.release());
+            });
+        }
+    }
+
+    /**
+     * A run of a statement - with all its binding sets - reported once, when all its results have been emitted and consumed.
+     */
+    private static final class Run {
+
+        private final String sql;
+        private final long start;
+        private final int batchSize;
+        private final String bindings;
+        private final StatementMetrics metrics;
+
+        private final AtomicLong rowsReturned = new AtomicLong();
+        private final AtomicLong rowsUpdated = new AtomicLong();
+
+        /**
+         * The results emitted but not consumed yet, and the stream of results itself until it terminates.
+         */
+        private final AtomicInteger pending = new AtomicInteger(1);
+
+        private Run(String sql, long start, int batchSize, String bindings, StatementMetrics metrics) {
+            this.sql = sql;
+            this.start = start;
+            this.batchSize = batchSize;
+            this.bindings = bindings;
+            this.metrics = metrics;
+        }
+
+        private void segment(Result.Segment segment) {
+            if (segment instanceof Result.RowSegment) {
+                rowsReturned.incrementAndGet();
+            } else if (segment instanceof Result.UpdateCount count) {
+                rowsUpdated.addAndGet(count.value());
+            }
+        }
+
+        /**
+         * @return the part of the run of a result, released once the result is consumed.
+         */
+        private Part part() {
+            pending.incrementAndGet();
+            return new Part(this);
+        }
+
+        private void release() {
+            if (pending.decrementAndGet() == 0) {
+                metrics.record(sql, System.nanoTime() - start, batchSize, rowsReturned.get(), rowsUpdated.get(), bindings);
+            }
+        }
+    }
+
+    /**
+     * The part of a run of one of its results - shared with the results filtered from it, only one of which is consumed.
+     */
+    private static final class Part {
+
+        private final Run run;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Part(Run run) {
+            this.run = run;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                run.release();
+            }
+        }
+    }
+
+    private static final class InstrumentedResult implements Result {
+
+        private final Result delegate;
+
+        private final Part part;
+
+        private final Run run;
+
+        private InstrumentedResult(Result delegate, Part part) {
+            this.delegate = delegate;
+            this.part = part;
+            this.run = part.run;
+        }
+
+        @Override
+        public Publisher<Long> getRowsUpdated() {
+            return Mono.from(delegate.getRowsUpdated())
+                .doOnNext(run.rowsUpdated::addAndGet)
+                .doFinally(signal -> part.release());
+        }
+
+        @Override
+        public <T> Publisher<T> map(BiFunction<Row, RowMetadata, ? extends T> mappingFunction) {
+            return Flux.<T>from(delegate.map(mappingFunction))
+                .doOnNext(row -> run.rowsReturned.incrementAndGet())
+                .doFinally(signal -> part.release());
+        }
+
+        @Override
+        public <T> Publisher<T> map(Function<? super Readable, ? extends T> mappingFunction) {
+            return Flux.<T>from(delegate.map(mappingFunction))
+                .doOnNext(row -> run.rowsReturned.incrementAndGet())
+                .doFinally(signal -> part.release());
+        }
+
+        @Override
+        public Result filter(Predicate<Segment> filter) {
+            return new InstrumentedResult(delegate.filter(filter), part);
+        }
+
+        @Override
+        public <T> Publisher<T> flatMap(Function<Segment, ? extends Publisher<? extends T>> mappingFunction) {
+            return Flux.<T>from(
+                delegate.flatMap(segment -> {
+                    run.segment(segment);
+                    return mappingFunction.apply(segment);
+                })
+            ).doFinally(signal -> part.release());
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.developer.portfolio.repository;
 
 import com.developer.portfolio.domain.Portfolio;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
@@ -14,8 +19,28 @@ import reactor.core.publisher.Mono;
 @SuppressWarnings("unused")
 @Repository
 public interface PortfolioRepository extends ReactiveCrudRepository<Portfolio, Long>, PortfolioRepositoryInternal {
+    String PORTFOLIOS_BY_ID_CACHE = "portfoliosById";
+
     Flux<Portfolio> findAllBy(Pageable pageable);
 
+    @Override
+    Flux<Portfolio> findAllBy(Pageable pageable, Set<String> fields);
+
+    @Override
+    Flux<Portfolio> findAllBy(Pageable pageable, KeysetCursor after);
+
+    @Override
+    Flux<Portfolio> findAllBy(Pageable pageable, KeysetCursor after, Set<String> fields);
+
+    @Override
+    Flux<Portfolio> streamAllBy(Sort sort, Set<String> fields, int fetchSize);
+
+    @Override
+    Mono<Page<Portfolio>> findPageBy(Pageable pageable);
+
+    @Override
+    Mono<Page<Portfolio>> findPageBy(Pageable pageable, Set<String> fields);
+
     @Override
     Mono<Portfolio> findOneWithEagerRelationships(Long id);
 
@@ -25,12 +50,30 @@ public interface PortfolioRepository extends ReactiveCrudRepository<Portfolio, L
     @Override
     Flux<Portfolio> findAllWithEagerRelationships(Pageable page);
 
+    @Override
+    Mono<List<Portfolio>> fetchUsers(List<Portfolio> portfolios);
+
     @Query("SELECT * FROM portfolio entity WHERE entity.user_id = :id")
     Flux<Portfolio> findByUser(Long id);
 
     @Query("SELECT * FROM portfolio entity WHERE entity.user_id IS NULL")
     Flux<Portfolio> findAllWhereUserIsNull();
 
+    @Query("SELECT entity.id FROM portfolio entity WHERE entity.id IN (:ids)")
+    Flux<Long> findIdsByIdIn(Collection<Long> ids);
+
+    @Override
+    Mono<Portfolio> update(Portfolio portfolio, Long expectedVersion);
+
+    @Override
+    Mono<Portfolio> partialUpdate(Portfolio patch);
+
+    @Override
+    Flux<Portfolio> insertBatch(List<Portfolio> portfolios);
+
+    @Override
+    Flux<Portfolio> updateBatch(List<Portfolio> portfolios);
+
     @Override
     <S extends Portfolio> Mono<S> save(S entity);
 
@@ -42,13 +85,81 @@ public interface PortfolioRepository extends ReactiveCrudRepository<Portfolio, L
 
     @Override
     Mono<Void> deleteById(Long id);
+
+    @Override
+    Mono<Boolean> deleteByIdIfExists(Long id);
+
+    @Override
+    Mono<Void> delete(Portfolio entity);
+
+    @Override
+    Mono<Void> deleteAll();
 }
 
 interface PortfolioRepositoryInternal {
     <S extends Portfolio> Mono<S> save(S entity);
 
+    /**
+     * Updates all the columns of an existing portfolio, and increments its version, with a single statement.
+     * @param portfolio the portfolio to update, with its id.
+     * @param expectedVersion the version the portfolio must still have, or null to update it whatever its version.
+     * @return the updated portfolio, with its new version - or empty if no portfolio has this id (and version).
+     */
+    Mono<Portfolio> update(Portfolio portfolio, Long expectedVersion);
+
+    /**
+     * Updates only the non-null fields of the given portfolio, and increments its version, with a single statement.
+     * @param patch the fields to update, with the id of the portfolio.
+     * @return the portfolio as stored after the update, or empty if no portfolio has this id.
+     */
+    Mono<Portfolio> partialUpdate(Portfolio patch);
+
+    /**
+     * Inserts the new portfolios with a single batched statement, and emits them in order with their id.
+     */
+    Flux<Portfolio> insertBatch(List<Portfolio> portfolios);
+
+    /**
+     * Updates the existing portfolios with a single batched statement, and emits them in order.
+     */
+    Flux<Portfolio> updateBatch(List<Portfolio> portfolios);
+
     Flux<Portfolio> findAllBy(Pageable pageable);
 
+    /**
+     * Returns the page with only the columns of the given fields (among {@link PortfolioSqlHelper#FIELDS}), the id and the
+     * sort properties - or all of them if {@code fields} is null.
+     */
+    Flux<Portfolio> findAllBy(Pageable pageable, Set<String> fields);
+
+    /**
+     * Keyset (seek) pagination: returns the page following the given cursor, ordered by the first sort property and the id.
+     * The page offset of {@code pageable} is ignored, only its size and sort are used.
+     */
+    Flux<Portfolio> findAllBy(Pageable pageable, KeysetCursor after);
+
+    /**
+     * Keyset (seek) pagination, with only the columns of the given fields, the id and the sort property.
+     */
+    Flux<Portfolio> findAllBy(Pageable pageable, KeysetCursor after, Set<String> fields);
+
+    /**
+     * Streams all the portfolios in the given order, with only the columns of the given fields (or all of them if null) - the
+     * rows are emitted as they are read, so the whole table is never held in memory.
+     * @param fetchSize the number of rows the driver should fetch at a time, a hint which is only honored by cursor-capable drivers.
+     */
+    Flux<Portfolio> streamAllBy(Sort sort, Set<String> fields, int fetchSize);
+
+    /**
+     * Returns the page together with the total number of portfolios, both read from a single statement.
+     */
+    Mono<Page<Portfolio>> findPageBy(Pageable pageable);
+
+    /**
+     * Returns the page together with the total number of portfolios, with only the columns of the given fields.
+     */
+    Mono<Page<Portfolio>> findPageBy(Pageable pageable, Set<String> fields);
+
     Flux<Portfolio> findAll();
 
     Mono<Portfolio> findById(Long id);
@@ -61,5 +172,22 @@ interface PortfolioRepositoryInternal {
 
     Flux<Portfolio> findAllWithEagerRelationships(Pageable page);
 
+    /**
+     * Loads the owners of the given portfolios, with a query per chunk of distinct user ids rather than a join repeating the
+     * owner in every row, and sets them on the portfolios - the lists of portfolios are read without their owner.
+     * @return the given portfolios.
+     */
+    Mono<List<Portfolio>> fetchUsers(List<Portfolio> portfolios);
+
     Mono<Void> deleteById(Long id);
+
+    /**
+     * Deletes the portfolio with the given id, if there is one.
+     * @return whether a portfolio was deleted.
+     */
+    Mono<Boolean> deleteByIdIfExists(Long id);
+
+    Mono<Void> delete(Portfolio entity);
+
+    Mono<Void> deleteAll();
 }
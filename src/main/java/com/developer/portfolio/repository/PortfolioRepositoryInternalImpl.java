@@ -1,29 +1,61 @@
 package com.developer.portfolio.repository;
 
+import com.developer.portfolio.config.ApplicationProperties;
 import com.developer.portfolio.domain.Portfolio;
+import com.developer.portfolio.domain.User;
 import com.developer.portfolio.repository.rowmapper.PortfolioRowMapper;
 import com.developer.portfolio.repository.rowmapper.UserRowMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.core.R2dbcEntityOperations;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.repository.support.SimpleR2dbcRepository;
 import org.springframework.data.relational.core.sql.Column;
-import org.springframework.data.relational.core.sql.Comparison;
 import org.springframework.data.relational.core.sql.Condition;
 import org.springframework.data.relational.core.sql.Conditions;
 import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.Expressions;
+import org.springframework.data.relational.core.sql.SQL;
 import org.springframework.data.relational.core.sql.Select;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoinCondition;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.data.relational.repository.support.MappingRelationalEntityInformation;
 import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.r2dbc.core.Parameter;
 import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.context.Context;
+import reactor.util.function.Tuples;
 
 /**
  * Spring Data R2DBC custom repository implementation for the Portfolio entity.
@@ -31,6 +63,8 @@ import reactor.core.publisher.Mono;
 @SuppressWarnings("unused")
 class PortfolioRepositoryInternalImpl extends SimpleR2dbcRepository<Portfolio, Long> implements PortfolioRepositoryInternal {
 
+    private static final Logger LOG = LoggerFactory.getLogger(PortfolioRepositoryInternalImpl.class);
+
     private final DatabaseClient db;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
     private final EntityManager entityManager;
@@ -38,16 +72,56 @@ class PortfolioRepositoryInternalImpl extends SimpleR2dbcRepository<Portfolio, L
     private final UserRowMapper userMapper;
     private final PortfolioRowMapper portfolioMapper;
 
+    /**
+     * Read-through cache of {@link #findById(Long)}, or null if disabled - it holds futures, so concurrent misses for an id share
+     * the same query.
+     */
+    private final AsyncCache<Long, Portfolio> cache;
+    private final CacheInvalidationBus invalidationBus;
+
+    /**
+     * Coalesces the concurrent reads of the same portfolio, which are frequent when a portfolio is shared widely - or null if
+     * the cache is enabled, since its futures already coalesce them.
+     */
+    private final SingleFlight<Long, Portfolio> findOneFlight;
+
     private static final Table entityTable = Table.aliased("portfolio", EntityManager.ENTITY_ALIAS);
     private static final Table userTable = Table.aliased("jhi_user", "e_user");
 
+    private static final String TOTAL_COUNT_ALIAS = "total_count";
+
+    private static final String UPDATE_COLUMNS_SQL =
+        "UPDATE portfolio SET project_name = :projectName, description = :description, image_url = :imageUrl, link = :link," +
+        " user_id = :userId, ";
+    private static final String UPDATE_SQL = UPDATE_COLUMNS_SQL + "version = version + 1 WHERE id = :id AND version = :version";
+    /**
+     * Unconditional update: {@code LAST_INSERT_ID(expr)} makes MySQL report the new version in the OK packet of the statement, which
+     * the driver exposes as a generated value - or 0 when no row was updated.
+     */
+    private static final String UPDATE_ANY_VERSION_SQL = UPDATE_COLUMNS_SQL + "version = LAST_INSERT_ID(version + 1) WHERE id = :id";
+    private static final String DELETE_SQL = "DELETE FROM portfolio WHERE id = :id";
+    private static final String INCREMENT_VERSIONS_SQL = "UPDATE portfolio SET version = version + 1 WHERE id IN (:ids)";
+
+    /**
+     * Number of owners loaded by a single query, when loading the owners of a list of portfolios.
+     */
+    private static final int USER_BATCH_SIZE = 500;
+
+    private static final String SHAPE = "portfolio";
+    private static final String SHAPE_WITH_USER = "portfolio+user";
+    private static final String SHAPE_WITH_TOTAL = "portfolio+total";
+    private static final String USER_SHAPE = "user";
+
     public PortfolioRepositoryInternalImpl(
         R2dbcEntityTemplate template,
         EntityManager entityManager,
         UserRowMapper userMapper,
         PortfolioRowMapper portfolioMapper,
         R2dbcEntityOperations entityOperations,
-        R2dbcConverter converter
+        R2dbcConverter converter,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        CacheInvalidationBus invalidationBus
     ) {
         super(
             new MappingRelationalEntityInformation(converter.getMappingContext().getRequiredPersistentEntity(Portfolio.class)),
@@ -59,25 +133,227 @@ class PortfolioRepositoryInternalImpl extends SimpleR2dbcRepository<Portfolio, L
         this.entityManager = entityManager;
         this.userMapper = userMapper;
         this.portfolioMapper = portfolioMapper;
+        this.invalidationBus = invalidationBus;
+        ApplicationProperties.EntityCache cacheProperties = applicationProperties.getCache().getPortfolio();
+        if (cacheProperties.isEnabled()) {
+            this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getMaximumSize())
+                .expireAfterWrite(cacheProperties.getTimeToLive())
+                .recordStats()
+                .buildAsync();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "portfolio.byId");
+            invalidationBus.subscribe(PortfolioRepository.PORTFOLIOS_BY_ID_CACHE, key -> {
+                if (CacheInvalidationBus.ALL_KEYS.equals(key)) {
+                    cache.synchronous().invalidateAll();
+                } else {
+                    cache.synchronous().invalidate(Long.valueOf(key));
+                }
+            });
+            this.findOneFlight = null;
+        } else {
+            this.cache = null;
+            this.findOneFlight = new SingleFlight<>(
+                "portfolio.findOneWithEagerRelationships",
+                meterRegistry,
+                PortfolioRepositoryInternalImpl::copy
+            );
+        }
     }
 
     @Override
     public Flux<Portfolio> findAllBy(Pageable pageable) {
-        return createQuery(pageable, null).all();
+        return findAllBy(pageable, (Set<String>) null);
+    }
+
+    @Override
+    public Flux<Portfolio> findAllBy(Pageable pageable, Set<String> fields) {
+        return createQuery(pageable, fields, null, null, Map.of()).all();
     }
 
-    RowsFetchSpec<Portfolio> createQuery(Pageable pageable, Condition whereClause) {
+    @Override
+    public Flux<Portfolio> findAllBy(Pageable pageable, KeysetCursor after) {
+        return findAllBy(pageable, after, null);
+    }
+
+    @Override
+    public Flux<Portfolio> findAllBy(Pageable pageable, KeysetCursor after, Set<String> fields) {
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc("id"));
+        String sortColumn = PortfolioSqlHelper.KEYSET_COLUMNS.get(order.getProperty());
+        if (sortColumn == null) {
+            return Flux.error(new IllegalArgumentException("Unsupported keyset sort property: " + order.getProperty()));
+        }
+        // the id is the tie-breaker, it must use the same direction so that the row comparison stays valid
+        Sort sort = "id".equals(order.getProperty())
+            ? Sort.by(order.getDirection(), "id")
+            : Sort.by(order.getDirection(), order.getProperty(), "id");
+        Pageable seekPage = PageRequest.of(0, pageable.getPageSize(), sort);
+        if (after == null) {
+            return createQuery(seekPage, fields, null, null, Map.of()).all();
+        }
+        if (!after.getProperty().equals(order.getProperty()) || after.getDirection() != order.getDirection()) {
+            return Flux.error(new IllegalArgumentException("Cursor does not match the requested sort"));
+        }
+
+        String comparator = order.isAscending() ? " > " : " < ";
+        String idColumn = EntityManager.ENTITY_ALIAS + ".id";
+        String whereShape = "keyset:" + order.getProperty() + comparator.trim();
+        if ("id".equals(order.getProperty())) {
+            Supplier<Condition> seek = () -> Conditions.just(idColumn + comparator + ":keyset_id");
+            return createQuery(seekPage, fields, whereShape, seek, Map.of("keyset_id", after.getId())).all();
+        }
+        if (after.getValue() == null) {
+            return Flux.error(new IllegalArgumentException("Cursor has no value for " + order.getProperty()));
+        }
+        String column = EntityManager.ENTITY_ALIAS + "." + sortColumn;
+        Supplier<Condition> seek = () ->
+            Conditions.just("(" + column + ", " + idColumn + ")" + comparator + "(:keyset_value, :keyset_id)");
+        Map<String, Object> parameters = Map.of("keyset_value", after.getValue(), "keyset_id", after.getId());
+        return createQuery(seekPage, fields, whereShape, seek, parameters).all();
+    }
+
+    @Override
+    public Flux<Portfolio> streamAllBy(Sort sort, Set<String> fields, int fetchSize) {
+        Pageable unpaged = Pageable.unpaged(sort);
+        Set<String> selected = selectedFields(fields, unpaged);
+        String select = entityManager.createSelect(
+            shape(SHAPE, selected),
+            Portfolio.class,
+            unpaged,
+            null,
+            () -> selectFrom(selected, List.of()),
+            null
+        );
+        return db
+            .sql(select)
+            .filter(statement -> statement.fetchSize(fetchSize))
+            .map((row, metadata) -> portfolioMapper.apply(row, metadata, EntityManager.ENTITY_ALIAS))
+            .all();
+    }
+
+    /**
+     * Select the portfolios without their owner - lists load the owners separately, see {@link #fetchUsers(List)}.
+     */
+    RowsFetchSpec<Portfolio> createQuery(
+        Pageable pageable,
+        Set<String> fields,
+        String whereShape,
+        Supplier<Condition> whereClause,
+        Map<String, Object> parameters
+    ) {
+        Set<String> selected = selectedFields(fields, pageable);
+        String select = entityManager.createSelect(
+            shape(SHAPE, selected),
+            Portfolio.class,
+            pageable,
+            whereShape,
+            () -> selectFrom(selected, List.of()),
+            whereClause
+        );
+        return bind(entityManager.bindPage(db.sql(select), pageable), parameters).map((row, metadata) ->
+            portfolioMapper.apply(row, metadata, EntityManager.ENTITY_ALIAS)
+        );
+    }
+
+    /**
+     * Select the portfolios joined with their owner - only worth it for a single portfolio, as the owner is repeated in every row.
+     */
+    RowsFetchSpec<Portfolio> createQueryWithUser(
+        Pageable pageable,
+        String whereShape,
+        Supplier<Condition> whereClause,
+        Map<String, Object> parameters
+    ) {
+        String select = entityManager.createSelect(
+            SHAPE_WITH_USER,
+            Portfolio.class,
+            pageable,
+            whereShape,
+            PortfolioRepositoryInternalImpl::selectFromWithUser,
+            whereClause
+        );
+        return bind(entityManager.bindPage(db.sql(select), pageable), parameters).map(this::process);
+    }
+
+    /**
+     * The fields to select: the requested ones and the sort properties - the order by clause refers to the selected columns.
+     * @return the fields to select, or null for all of them.
+     */
+    private static Set<String> selectedFields(Set<String> fields, Pageable pageable) {
+        if (fields == null) {
+            return null;
+        }
+        Set<String> selected = new TreeSet<>(fields);
+        if (pageable != null) {
+            pageable.getSort().stream().map(Sort.Order::getProperty).filter(PortfolioSqlHelper.FIELDS::contains).forEach(selected::add);
+        }
+        return selected;
+    }
+
+    private static String shape(String shape, Set<String> fields) {
+        return fields == null ? shape : shape + fields;
+    }
+
+    private static SelectFromAndJoin selectFrom(Set<String> fields, List<Expression> extraColumns) {
+        List<Expression> columns = fields == null
+            ? PortfolioSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS)
+            : PortfolioSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS, fields);
+        columns.addAll(extraColumns);
+        return Select.builder().select(columns).from(entityTable);
+    }
+
+    private static SelectFromAndJoinCondition selectFromWithUser() {
         List<Expression> columns = PortfolioSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
         columns.addAll(UserSqlHelper.getColumns(userTable, "user"));
-        SelectFromAndJoinCondition selectFrom = Select.builder()
+        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
+        return Select.builder()
             .select(columns)
             .from(entityTable)
             .leftOuterJoin(userTable)
             .on(Column.create("user_id", entityTable))
             .equals(Column.create("id", userTable));
-        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
-        String select = entityManager.createSelect(selectFrom, Portfolio.class, pageable, whereClause);
-        return db.sql(select).map(this::process);
+    }
+
+    private static GenericExecuteSpec bind(GenericExecuteSpec spec, Map<String, Object> parameters) {
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            spec = spec.bind(parameter.getKey(), parameter.getValue());
+        }
+        return spec;
+    }
+
+    @Override
+    public Mono<Page<Portfolio>> findPageBy(Pageable pageable) {
+        return findPageBy(pageable, null);
+    }
+
+    @Override
+    public Mono<Page<Portfolio>> findPageBy(Pageable pageable, Set<String> fields) {
+        Set<String> selected = selectedFields(fields, pageable);
+        // the window function is evaluated before LIMIT/OFFSET, so every row carries the total of the whole result
+        String select = entityManager.createSelect(
+            shape(SHAPE_WITH_TOTAL, selected),
+            Portfolio.class,
+            pageable,
+            null,
+            () -> selectFrom(selected, List.of(Expressions.just("COUNT(*) OVER() AS " + TOTAL_COUNT_ALIAS))),
+            null
+        );
+        return entityManager
+            .bindPage(db.sql(select), pageable)
+            .map((row, metadata) ->
+                Tuples.of(portfolioMapper.apply(row, metadata, EntityManager.ENTITY_ALIAS), row.get(TOTAL_COUNT_ALIAS, Long.class))
+            )
+            .all()
+            .collectList()
+            .flatMap(rows -> {
+                if (rows.isEmpty()) {
+                    // past the last page, the total can't be read from the (empty) result
+                    return pageable.getOffset() > 0
+                        ? count().map(total -> new PageImpl<>(List.<Portfolio>of(), pageable, total))
+                        : Mono.just(new PageImpl<>(List.<Portfolio>of(), pageable, 0));
+                }
+                List<Portfolio> content = rows.stream().map(Tuple2::getT1).toList();
+                return Mono.just(new PageImpl<>(content, pageable, rows.get(0).getT2()));
+            });
     }
 
     @Override
@@ -87,33 +363,303 @@ class PortfolioRepositoryInternalImpl extends SimpleR2dbcRepository<Portfolio, L
 
     @Override
     public Mono<Portfolio> findById(Long id) {
-        Comparison whereClause = Conditions.isEqual(entityTable.column("id"), Conditions.just(id.toString()));
-        return createQuery(null, whereClause).one();
+        if (cache == null) {
+            return findByIdFromDatabase(id);
+        }
+        // the shared future must not be cancelled when one of its subscribers goes away
+        return Mono.fromFuture(() -> cache.get(id, (key, executor) -> findByIdFromDatabase(key).toFuture()), true).map(
+            PortfolioRepositoryInternalImpl::copy
+        );
+    }
+
+    private Mono<Portfolio> findByIdFromDatabase(Long id) {
+        return createQueryWithUser(
+            null,
+            "id",
+            () -> Conditions.isEqual(entityTable.column("id"), SQL.bindMarker(":id")),
+            Map.of("id", id)
+        ).one();
     }
 
     @Override
     public Mono<Portfolio> findOneWithEagerRelationships(Long id) {
+        if (cache == null) {
+            return findOneFlight.load(id, this::findByIdFromDatabase);
+        }
         return findById(id);
     }
 
     @Override
     public Flux<Portfolio> findAllWithEagerRelationships() {
-        return findAll();
+        return findAll().collectList().flatMap(this::fetchUsers).flatMapIterable(Function.identity());
     }
 
     @Override
     public Flux<Portfolio> findAllWithEagerRelationships(Pageable page) {
-        return findAllBy(page);
+        return findAllBy(page).collectList().flatMap(this::fetchUsers).flatMapIterable(Function.identity());
+    }
+
+    @Override
+    public Mono<List<Portfolio>> fetchUsers(List<Portfolio> portfolios) {
+        List<String> userIds = portfolios.stream().map(Portfolio::getUserId).filter(Objects::nonNull).distinct().toList();
+        if (userIds.isEmpty()) {
+            return Mono.just(portfolios);
+        }
+        return Flux.fromIterable(userIds)
+            .buffer(USER_BATCH_SIZE)
+            .concatMap(this::findUsers)
+            .collectMap(User::getId)
+            .map(users -> {
+                for (Portfolio portfolio : portfolios) {
+                    User user = portfolio.getUserId() != null ? users.get(portfolio.getUserId()) : null;
+                    if (user != null) {
+                        portfolio.setUser(user);
+                    }
+                }
+                return portfolios;
+            });
+    }
+
+    private Flux<User> findUsers(List<String> ids) {
+        String select = entityManager.createSelect(
+            USER_SHAPE,
+            User.class,
+            null,
+            "id in",
+            () -> Select.builder().select(UserSqlHelper.getColumns(userTable, "user")).from(userTable),
+            () -> Conditions.in(userTable.column("id"), SQL.bindMarker(":ids"))
+        );
+        return db
+            .sql(select)
+            .bind("ids", ids)
+            .map((row, metadata) -> userMapper.apply(row, metadata, "user"))
+            .all();
     }
 
     private Portfolio process(Row row, RowMetadata metadata) {
-        Portfolio entity = portfolioMapper.apply(row, "e");
-        entity.setUser(userMapper.apply(row, "user"));
+        Portfolio entity = portfolioMapper.apply(row, metadata, "e");
+        entity.setUser(userMapper.apply(row, metadata, "user"));
         return entity;
     }
 
+    /**
+     * Cached entities are shared, so callers get their own copy which they are free to modify.
+     */
+    private static Portfolio copy(Portfolio source) {
+        Portfolio portfolio = new Portfolio()
+            .id(source.getId())
+            .projectName(source.getProjectName())
+            .description(source.getDescription())
+            .imageUrl(source.getImageUrl())
+            .link(source.getLink())
+            .version(source.getVersion());
+        portfolio.setUser(source.getUser());
+        portfolio.setUserId(source.getUserId());
+        return portfolio;
+    }
+
+    /**
+     * Evict the given portfolios from the local cache - or all of them, if {@code ids} is null.
+     */
+    private void invalidate(List<Long> ids) {
+        if (cache == null) {
+            return;
+        }
+        if (ids == null) {
+            cache.synchronous().invalidateAll();
+        } else {
+            cache.synchronous().invalidateAll(ids);
+        }
+    }
+
+    /**
+     * Publish the eviction of the given portfolios to the other nodes - or of all of them, if {@code ids} is null.
+     */
+    private Mono<Void> publish(List<Long> ids) {
+        return ids == null
+            ? invalidationBus.publish(PortfolioRepository.PORTFOLIOS_BY_ID_CACHE, CacheInvalidationBus.ALL_KEYS)
+            : invalidationBus.publish(PortfolioRepository.PORTFOLIOS_BY_ID_CACHE, ids.stream().map(String::valueOf).toList());
+    }
+
+    /**
+     * Run a write of the given portfolios, and evict them from the cache of every node once it is visible.
+     * <p>
+     * In a transaction, they are evicted once it completes - also if it's rolled back, as the rows it read may have been
+     * cached - and the eviction is published once it's committed. Otherwise, they are evicted before and after the write, so
+     * a read racing with it can't leave the old row cached.
+     * @param ids the ids of the written portfolios, or null if the write may change all of them.
+     * @param write the write.
+     * @return the result of the write.
+     */
+    private <T> Flux<T> evicting(List<Long> ids, Flux<T> write) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+            .filter(TransactionSynchronizationManager::isSynchronizationActive)
+            .doOnNext(synchronizationManager -> synchronizationManager.registerSynchronization(evictionOnCompletion(ids)))
+            .onErrorResume(NoTransactionException.class, e -> Mono.empty())
+            .hasElement()
+            .flatMapMany(transactional -> {
+                if (transactional) {
+                    return write;
+                }
+                Mono<Void> published = Mono.defer(() -> publish(ids));
+                invalidate(ids);
+                return write
+                    .doFinally(signal -> invalidate(ids))
+                    .onErrorResume(e -> published.then(Mono.error(e)))
+                    .concatWith(published.then(Mono.empty()));
+            });
+    }
+
+    private <T> Mono<T> evicting(List<Long> ids, Mono<T> write) {
+        return evicting(ids, write.flux()).singleOrEmpty();
+    }
+
+    private TransactionSynchronization evictionOnCompletion(List<Long> ids) {
+        return new TransactionSynchronization() {
+            @Override
+            public Mono<Void> afterCompletion(int status) {
+                invalidate(ids);
+                if (status != STATUS_COMMITTED) {
+                    return Mono.empty();
+                }
+                // the invalidation is written on its own connection, the one of the transaction is being released
+                return publish(ids)
+                    .contextWrite(context -> Context.empty())
+                    .onErrorResume(e -> {
+                        LOG.warn("Could not publish the eviction of the portfolios {}: {}", ids, e.getMessage());
+                        return Mono.empty();
+                    });
+            }
+        };
+    }
+
     @Override
+    @SuppressWarnings("unchecked")
     public <S extends Portfolio> Mono<S> save(S entity) {
-        return super.save(entity);
+        return Mono.defer(() -> {
+            if (entity.getId() != null) {
+                // same contract as the default save, but the version is incremented
+                return update(entity, null)
+                    .switchIfEmpty(
+                        Mono.error(
+                            new TransientDataAccessResourceException(
+                                "Failed to update table [portfolio]; Row with Id [" + entity.getId() + "] does not exist"
+                            )
+                        )
+                    )
+                    .map(updated -> (S) updated);
+            }
+            // new ids can't be cached yet, there is nothing to invalidate
+            return super.save(entity);
+        });
+    }
+
+    @Override
+    public Mono<Portfolio> update(Portfolio portfolio, Long expectedVersion) {
+        return Mono.defer(() -> {
+            GenericExecuteSpec update = db
+                .sql(expectedVersion == null ? UPDATE_ANY_VERSION_SQL : UPDATE_SQL)
+                .bind("projectName", Parameter.fromOrEmpty(portfolio.getProjectName(), String.class))
+                .bind("description", Parameter.fromOrEmpty(portfolio.getDescription(), String.class))
+                .bind("imageUrl", Parameter.fromOrEmpty(portfolio.getImageUrl(), String.class))
+                .bind("link", Parameter.fromOrEmpty(portfolio.getLink(), String.class))
+                .bind("userId", Parameter.fromOrEmpty(portfolio.getUserId(), String.class))
+                .bind("id", portfolio.getId());
+            if (expectedVersion == null) {
+                // the new version comes back with the update count, in the same round-trip
+                return evicting(
+                    List.of(portfolio.getId()),
+                    update
+                        .filter(statement -> statement.returnGeneratedValues("version"))
+                        .map(row -> row.get("version", Long.class))
+                        .one()
+                        .filter(version -> version > 0)
+                        .map(portfolio::version)
+                );
+            }
+            // the driver reports the matched rows, so an update which changes nothing still counts
+            return evicting(
+                List.of(portfolio.getId()),
+                update
+                    .bind("version", expectedVersion)
+                    .fetch()
+                    .rowsUpdated()
+                    .filter(rows -> rows > 0)
+                    .map(rows -> portfolio.version(expectedVersion + 1))
+            );
+        });
+    }
+
+    @Override
+    public Mono<Portfolio> partialUpdate(Portfolio patch) {
+        Long id = patch.getId();
+        Map<String, String> columns = new LinkedHashMap<>();
+        if (patch.getProjectName() != null) {
+            columns.put("project_name", patch.getProjectName());
+        }
+        if (patch.getDescription() != null) {
+            columns.put("description", patch.getDescription());
+        }
+        if (patch.getImageUrl() != null) {
+            columns.put("image_url", patch.getImageUrl());
+        }
+        if (patch.getLink() != null) {
+            columns.put("link", patch.getLink());
+        }
+        if (columns.isEmpty()) {
+            return findById(id);
+        }
+        StringJoiner assignments = new StringJoiner(", ", "UPDATE portfolio SET ", ", version = version + 1 WHERE id = :id");
+        columns.keySet().forEach(column -> assignments.add(column + " = :" + column));
+        return Mono.defer(() -> {
+            GenericExecuteSpec update = db.sql(assignments.toString()).bind("id", id);
+            for (Map.Entry<String, String> column : columns.entrySet()) {
+                update = update.bind(column.getKey(), column.getValue());
+            }
+            // MySQL has no RETURNING clause, the updated row is read back - and cached again - only if there is one
+            return evicting(List.of(id), update.fetch().rowsUpdated().filter(rows -> rows > 0)).flatMap(rows -> findById(id));
+        });
+    }
+
+    @Override
+    public Flux<Portfolio> insertBatch(List<Portfolio> portfolios) {
+        // new ids can't be cached yet, there is nothing to invalidate
+        return entityManager.insertAll(Portfolio.class, portfolios);
+    }
+
+    @Override
+    public Flux<Portfolio> updateBatch(List<Portfolio> portfolios) {
+        return Flux.defer(() -> {
+            List<Long> ids = portfolios.stream().map(Portfolio::getId).toList();
+            List<Long> updatedIds = new ArrayList<>(portfolios.size());
+            // the generic update doesn't write the read-only version, it is incremented afterwards for the rows updated -
+            // a failed batch may still have updated its first rows
+            Mono<Void> afterUpdate = Mono.defer(() ->
+                updatedIds.isEmpty() ? Mono.empty() : db.sql(INCREMENT_VERSIONS_SQL).bind("ids", updatedIds).then()
+            );
+            return evicting(
+                ids,
+                entityManager
+                    .updateAll(Portfolio.class, portfolios)
+                    .doOnNext(updated -> updatedIds.add(updated.getId()))
+                    .onErrorResume(e -> afterUpdate.then(Mono.error(e)))
+                    .concatWith(afterUpdate.then(Mono.empty()))
+            );
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        return evicting(List.of(id), super.deleteById(id));
+    }
+
+    @Override
+    public Mono<Boolean> deleteByIdIfExists(Long id) {
+        return evicting(List.of(id), db.sql(DELETE_SQL).bind("id", id).fetch().rowsUpdated().map(rows -> rows > 0));
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return evicting(null, super.deleteAll());
     }
 }
@@ -2,12 +2,35 @@ package com.developer.portfolio.repository;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.springframework.data.relational.core.sql.Column;
 import org.springframework.data.relational.core.sql.Expression;
 import org.springframework.data.relational.core.sql.Table;
 
 public class PortfolioSqlHelper {
 
+    /**
+     * Properties usable as keyset sort key, mapped to their column - all of them are non-null, so the seek predicate is total.
+     */
+    public static final Map<String, String> KEYSET_COLUMNS = Map.of(
+        "id",
+        "id",
+        "projectName",
+        "project_name",
+        "description",
+        "description",
+        "imageUrl",
+        "image_url",
+        "link",
+        "link"
+    );
+
+    /**
+     * Properties which can be requested on their own - the owner ({@code user}) is selected through its id.
+     */
+    public static final Set<String> FIELDS = Set.of("id", "projectName", "description", "imageUrl", "link", "user");
+
     public static List<Expression> getColumns(Table table, String columnPrefix) {
         List<Expression> columns = new ArrayList<>();
         columns.add(Column.aliased("id", table, columnPrefix + "_id"));
@@ -16,7 +39,35 @@ public class PortfolioSqlHelper {
         columns.add(Column.aliased("image_url", table, columnPrefix + "_image_url"));
         columns.add(Column.aliased("link", table, columnPrefix + "_link"));
 
+        columns.add(Column.aliased("version", table, columnPrefix + "_version"));
+
         columns.add(Column.aliased("user_id", table, columnPrefix + "_user_id"));
         return columns;
     }
+
+    /**
+     * Only the columns of the given properties, and always the id.
+     * @param fields the requested properties, among {@link #FIELDS}.
+     */
+    public static List<Expression> getColumns(Table table, String columnPrefix, Set<String> fields) {
+        List<Expression> columns = new ArrayList<>();
+        columns.add(Column.aliased("id", table, columnPrefix + "_id"));
+        if (fields.contains("projectName")) {
+            columns.add(Column.aliased("project_name", table, columnPrefix + "_project_name"));
+        }
+        if (fields.contains("description")) {
+            columns.add(Column.aliased("description", table, columnPrefix + "_description"));
+        }
+        if (fields.contains("imageUrl")) {
+            columns.add(Column.aliased("image_url", table, columnPrefix + "_image_url"));
+        }
+        if (fields.contains("link")) {
+            columns.add(Column.aliased("link", table, columnPrefix + "_link"));
+        }
+
+        if (fields.contains("user")) {
+            columns.add(Column.aliased("user_id", table, columnPrefix + "_user_id"));
+        }
+        return columns;
+    }
 }
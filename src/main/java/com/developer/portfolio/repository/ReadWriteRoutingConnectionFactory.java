@@ -0,0 +1,402 @@
+package com.developer.portfolio.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.Batch;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.ConnectionMetadata;
+import io.r2dbc.spi.IsolationLevel;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.ValidationDepth;
+import io.r2dbc.spi.Wrapped;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Routes the connections to the primary database, or to its replicas for the reads: the read-only transactions, and the reads
+ * marked with {@link #readOnly()} outside of any transaction. Everything else goes to the primary.
+ * <p>
+ * The replicas are used in turn. A replica is left out as soon as it fails to give a connection, until its health check
+ * succeeds again; without any healthy replica, the reads go to the primary.
+ * <p>
+ * Once a user has written to the primary - a statement other than a {@code SELECT} run outside of any transaction, or in a
+ * transaction which was then committed - their reads go to the primary as well for a while, so that they read their own writes
+ * whatever the replication lag. The reads which are not marked as such still go to the primary, but don't make the user a
+ * writer.
+ * <p>
+ * A read-only transaction is only known once it has begun, after its connection has been taken: the
+ * {@link ReadOnlyTransactionManager} tells it to this factory.
+ */
+public class ReadWriteRoutingConnectionFactory extends AbstractRoutingConnectionFactory implements Wrapped<ConnectionFactory>, Disposable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReadWriteRoutingConnectionFactory.class);
+
+    private static final String READ_ONLY = ReadWriteRoutingConnectionFactory.class.getName() + ".READ_ONLY";
+
+    private static final String PRIMARY = "primary";
+
+    private static final String REPLICA = "replica";
+
+    private final ConnectionFactory primary;
+
+    private final List<Replica> replicas;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * The users who recently wrote to the primary.
+     */
+    private final Cache<String, Boolean> recentWriters;
+
+    private final Disposable healthChecks;
+
+    /**
+     * @param primary the primary database.
+     * @param replicas the replicas of the primary database.
+     * @param readYourWritesWindow how long the reads of a user go to the primary after they wrote to it.
+     * @param healthCheckInterval how often the replicas are checked.
+     * @param meterRegistry the registry of the health gauges of the replicas.
+     */
+    public ReadWriteRoutingConnectionFactory(
+        ConnectionFactory primary,
+        List<ConnectionFactory> replicas,
+        Duration readYourWritesWindow,
+        Duration healthCheckInterval,
+        MeterRegistry meterRegistry
+    ) {
+        this.primary = primary;
+        this.replicas = IntStream.range(0, replicas.size()).mapToObj(i -> new Replica(i, replicas.get(i))).toList();
+        this.recentWriters = Caffeine.newBuilder().expireAfterWrite(readYourWritesWindow).build();
+        for (Replica replica : this.replicas) {
+            Gauge.builder("r2dbc.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                .tag("replica", String.valueOf(replica.index))
+                .description("Whether a replica is used for the reads")
+                .register(meterRegistry);
+        }
+        setTargetConnectionFactories(Map.of(PRIMARY, primary, REPLICA, new ReplicaConnectionFactory()));
+        setDefaultTargetConnectionFactory(primary);
+        afterPropertiesSet();
+        this.healthChecks = Flux.interval(healthCheckInterval, healthCheckInterval)
+            .concatMap(tick -> Flux.fromIterable(this.replicas).flatMap(replica -> check(replica, healthCheckInterval)))
+            .subscribe();
+    }
+
+    /**
+     * Mark the reads run outside of any transaction, so that they go to a replica:
+     * {@code reads.contextWrite(ReadWriteRoutingConnectionFactory.readOnly())}. Within a transaction, they use its connection.
+     */
+    public static Function<Context, Context> readOnly() {
+        return context -> context.put(READ_ONLY, true);
+    }
+
+    @Override
+    public Mono<Connection> create() {
+        return Mono.deferContextual(context -> {
+            if (context.getOrDefault(READ_ONLY, false)) {
+                return super.create();
+            }
+            // the connections to the primary tell when their user writes
+            return currentUser()
+                .flatMap(user -> super.create().<Connection>map(connection -> new WriterTrackingConnection(connection, user)))
+                .switchIfEmpty(Mono.defer(super::create));
+        });
+    }
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return Mono.deferContextual(context -> {
+            if (!context.getOrDefault(READ_ONLY, false)) {
+                return Mono.just(PRIMARY);
+            }
+            return currentUser().<Object>map(user -> recentWriters.getIfPresent(user) != null ? PRIMARY : REPLICA).defaultIfEmpty(REPLICA);
+        });
+    }
+
+    private static Mono<String> currentUser() {
+        return ReactiveSecurityContextHolder.getContext().mapNotNull(SecurityContext::getAuthentication).map(Authentication::getName);
+    }
+
+    /**
+     * @return the replicas, healthy or not.
+     */
+    public List<ConnectionFactory> getReplicas() {
+        return replicas.stream().map(replica -> replica.connectionFactory).toList();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return primary;
+    }
+
+    @Override
+    public void dispose() {
+        healthChecks.dispose();
+        for (ConnectionFactory connectionFactory : getReplicas()) {
+            if (connectionFactory instanceof Disposable disposable) {
+                disposable.dispose();
+            }
+        }
+        if (primary instanceof Disposable disposable) {
+            disposable.dispose();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return healthChecks.isDisposed();
+    }
+
+    private Mono<Boolean> check(Replica replica, Duration timeout) {
+        return Mono.usingWhen(
+            replica.connectionFactory.create(),
+            connection -> Mono.from(connection.validate(ValidationDepth.REMOTE)),
+            Connection::close
+        )
+            .timeout(timeout)
+            .doOnNext(valid -> replica.setHealthy(valid, null))
+            .onErrorResume(e -> {
+                replica.setHealthy(false, e);
+                return Mono.just(false);
+            });
+    }
+
+    private static final class Replica {
+
+        private final int index;
+
+        private final ConnectionFactory connectionFactory;
+
+        private volatile boolean healthy = true;
+
+        private Replica(int index, ConnectionFactory connectionFactory) {
+            this.index = index;
+            this.connectionFactory = connectionFactory;
+        }
+
+        private void setHealthy(boolean healthy, Throwable cause) {
+            if (this.healthy != healthy) {
+                if (healthy) {
+                    LOG.info("Replica {} is back, reads are sent to it again", index);
+                } else {
+                    LOG.warn("Replica {} is left out of the reads: {}", index, cause != null ? cause.toString() : "invalid connection");
+                }
+            }
+            this.healthy = healthy;
+        }
+    }
+
+    /**
+     * Takes the connections from the healthy replicas in turn, or from the primary if there is none.
+     */
+    private final class ReplicaConnectionFactory implements ConnectionFactory {
+
+        @Override
+        public Publisher<? extends Connection> create() {
+            return Mono.defer(() -> {
+                for (int i = 0; i < replicas.size(); i++) {
+                    Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+                    if (replica.healthy) {
+                        return Mono.<Connection>from(replica.connectionFactory.create()).onErrorResume(e -> {
+                            replica.setHealthy(false, e);
+                            return Mono.from(primary.create());
+                        });
+                    }
+                }
+                return Mono.from(primary.create());
+            });
+        }
+
+        @Override
+        public ConnectionFactoryMetadata getMetadata() {
+            return primary.getMetadata();
+        }
+    }
+
+    /**
+     * A connection to the primary, which records its user as a writer once a statement other than a {@code SELECT} was run
+     * outside of any transaction - when it's created, so before the next read - or when the transaction it ran in is committed.
+     */
+    private final class WriterTrackingConnection implements Connection, Wrapped<Connection> {
+
+        private final Connection delegate;
+
+        private final String user;
+
+        private volatile boolean inTransaction;
+
+        private volatile boolean wrote;
+
+        private WriterTrackingConnection(Connection delegate, String user) {
+            this.delegate = delegate;
+            this.user = user;
+        }
+
+        private void write() {
+            if (inTransaction) {
+                wrote = true;
+            } else {
+                recentWriters.put(user, Boolean.TRUE);
+            }
+        }
+
+        private Publisher<Void> begin(Publisher<Void> begin) {
+            return Mono.from(begin).doOnSuccess(done -> {
+                inTransaction = true;
+                wrote = false;
+            });
+        }
+
+        private Publisher<Void> end(Publisher<Void> end, boolean committed) {
+            return Mono.from(end).doOnSuccess(done -> {
+                if (committed && wrote) {
+                    recentWriters.put(user, Boolean.TRUE);
+                }
+                inTransaction = false;
+                wrote = false;
+            });
+        }
+
+        @Override
+        public Statement createStatement(String sql) {
+            if (!sql.stripLeading().regionMatches(true, 0, "SELECT", 0, 6)) {
+                write();
+            }
+            return delegate.createStatement(sql);
+        }
+
+        @Override
+        public Batch createBatch() {
+            write();
+            return delegate.createBatch();
+        }
+
+        @Override
+        public Publisher<Void> beginTransaction() {
+            return begin(delegate.beginTransaction());
+        }
+
+        @Override
+        public Publisher<Void> beginTransaction(io.r2dbc.spi.TransactionDefinition definition) {
+            return begin(delegate.beginTransaction(definition));
+        }
+
+        @Override
+        public Publisher<Void> commitTransaction() {
+            return end(delegate.commitTransaction(), true);
+        }
+
+        @Override
+        public Publisher<Void> rollbackTransaction() {
+            return end(delegate.rollbackTransaction(), false);
+        }
+
+        @Override
+        public Publisher<Void> close() {
+            return delegate.close();
+        }
+
+        @Override
+        public Publisher<Void> createSavepoint(String name) {
+            return delegate.createSavepoint(name);
+        }
+
+        @Override
+        public boolean isAutoCommit() {
+            return delegate.isAutoCommit();
+        }
+
+        @Override
+        public ConnectionMetadata getMetadata() {
+            return delegate.getMetadata();
+        }
+
+        @Override
+        public IsolationLevel getTransactionIsolationLevel() {
+            return delegate.getTransactionIsolationLevel();
+        }
+
+        @Override
+        public Publisher<Void> releaseSavepoint(String name) {
+            return delegate.releaseSavepoint(name);
+        }
+
+        @Override
+        public Publisher<Void> rollbackTransactionToSavepoint(String name) {
+            return delegate.rollbackTransactionToSavepoint(name);
+        }
+
+        @Override
+        public Publisher<Void> setAutoCommit(boolean autoCommit) {
+            return delegate.setAutoCommit(autoCommit);
+        }
+
+        @Override
+        public Publisher<Void> setLockWaitTimeout(Duration timeout) {
+            return delegate.setLockWaitTimeout(timeout);
+        }
+
+        @Override
+        public Publisher<Void> setStatementTimeout(Duration timeout) {
+            return delegate.setStatementTimeout(timeout);
+        }
+
+        @Override
+        public Publisher<Void> setTransactionIsolationLevel(IsolationLevel isolationLevel) {
+            return delegate.setTransactionIsolationLevel(isolationLevel);
+        }
+
+        @Override
+        public Publisher<Boolean> validate(ValidationDepth depth) {
+            return delegate.validate(depth);
+        }
+
+        @Override
+        public Connection unwrap() {
+            return delegate;
+        }
+    }
+
+    /**
+     * A transaction manager telling the {@link ReadWriteRoutingConnectionFactory} whether the transaction it begins is
+     * read-only, while it takes its connection.
+     */
+    public static class ReadOnlyTransactionManager extends R2dbcTransactionManager {
+
+        public ReadOnlyTransactionManager(ConnectionFactory connectionFactory) {
+            super(connectionFactory);
+        }
+
+        @Override
+        protected Mono<Void> doBegin(
+            TransactionSynchronizationManager synchronizationManager,
+            Object transaction,
+            TransactionDefinition definition
+        ) {
+            return super.doBegin(synchronizationManager, transaction, definition).contextWrite(context ->
+                context.put(READ_ONLY, definition.isReadOnly())
+            );
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.developer.portfolio.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * Coalesces the concurrent loads of the same key: while a load is in flight, the other subscribers for its key wait for its
+ * result instead of starting their own. Nothing is kept once the load completes, so the next subscriber loads again.
+ * <p>
+ * Like the read-through caches, the load runs on its own, outside of the transaction of the subscriber which started it - so it
+ * only sees committed data. Each subscriber gets its own copy of the result, which it is free to modify.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the loaded values.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final UnaryOperator<V> copy;
+
+    private final Counter loads;
+
+    private final Counter coalesced;
+
+    /**
+     * @param name the name of the loads, used as tag of the metrics.
+     * @param meterRegistry the registry of the metrics.
+     * @param copy copies a loaded value for a subscriber.
+     */
+    public SingleFlight(String name, MeterRegistry meterRegistry, UnaryOperator<V> copy) {
+        this.copy = copy;
+        this.loads = Counter.builder("singleflight.loads")
+            .tag("name", name)
+            .description("Loads started, each one running a query")
+            .register(meterRegistry);
+        this.coalesced = Counter.builder("singleflight.coalesced")
+            .tag("name", name)
+            .description("Loads saved by waiting for the one in flight")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Load the value of a key, or wait for the load of the key already in flight.
+     * @param key the key to load.
+     * @param loader loads the value of a key, or is empty if there is none.
+     * @return a copy of the loaded value, or empty.
+     */
+    public Mono<V> load(K key, Function<? super K, Mono<V>> loader) {
+        // the shared future must not be cancelled when one of its subscribers goes away
+        return Mono.fromFuture(() -> join(key, loader), true).map(copy);
+    }
+
+    private CompletableFuture<V> join(K key, Function<? super K, Mono<V>> loader) {
+        CompletableFuture<V> started = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, started);
+        if (running != null) {
+            coalesced.increment();
+            return running;
+        }
+        loads.increment();
+        Mono.defer(() -> loader.apply(key))
+            .toFuture()
+            .whenComplete((value, error) -> {
+                // removed first, so that a subscriber coming after the result is published starts a fresh load
+                inFlight.remove(key, started);
+                if (error != null) {
+                    started.completeExceptionally(error);
+                } else {
+                    started.complete(value);
+                }
+            });
+        return started;
+    }
+}
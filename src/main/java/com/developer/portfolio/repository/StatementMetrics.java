@@ -0,0 +1,324 @@
+package com.developer.portfolio.repository;
+
+import com.developer.portfolio.config.ApplicationProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.ConnectionFactory;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Measures the SQL statements run through the instrumented {@link ConnectionFactory}, by fingerprint: the text of the
+ * statement with its literals, bind markers and lists of values normalized, so that the same query is measured as one
+ * whatever its values.
+ * <p>
+ * Each fingerprint has a timer, and summaries of the rows returned and updated, tagged with a short id of the fingerprint and
+ * with the batch size of the run - its number of binding sets, rounded up to a power of two to bound the number of meters.
+ * The statements slower than the threshold are logged with the shape of their bindings - their types, never their values.
+ * The number of fingerprints is bounded: the least used ones are dropped, with their metrics.
+ * <p>
+ * The time to acquire a connection - from the pool, or by opening it - is measured as well.
+ */
+@Component
+public class StatementMetrics {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StatementMetrics.class);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+
+    private static final Pattern BIND_MARKER = Pattern.compile("\\$\\d+|:\\w+|\\?");
+
+    private static final Pattern VALUE_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private static final Pattern VALUE_ROWS = Pattern.compile("(\\((?:\\?|\\?, \\.\\.\\.)\\))(?:\\s*,\\s*\\((?:\\?|\\?, \\.\\.\\.)\\))+");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final MeterRegistry meterRegistry;
+
+    private final ApplicationProperties.Statements properties;
+
+    /**
+     * Fingerprints of the statements, which are mostly the same few strings.
+     */
+    private final Cache<String, String> fingerprints;
+
+    private final Cache<String, StatementStats> statements;
+
+    private final Timer acquired;
+
+    private final Timer acquireFailed;
+
+    public StatementMetrics(MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = applicationProperties.getStatements();
+        this.fingerprints = Caffeine.newBuilder().maximumSize(properties.getMaximumStatements()).build();
+        this.statements = Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumStatements())
+            .<String, StatementStats>removalListener((fingerprint, stats, cause) -> {
+                if (stats != null && cause.wasEvicted()) {
+                    stats.remove(meterRegistry);
+                }
+            })
+            .build();
+        this.acquired = acquireTimer(meterRegistry, "success");
+        this.acquireFailed = acquireTimer(meterRegistry, "failure");
+    }
+
+    private static Timer acquireTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("r2dbc.pool.acquire")
+            .tag("outcome", outcome)
+            .description("Time to acquire a connection")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return the connection factory, measuring the statements run on its connections - or itself if the instrumentation is
+     * disabled.
+     */
+    public ConnectionFactory instrument(ConnectionFactory connectionFactory) {
+        if (!properties.isEnabled() || connectionFactory instanceof InstrumentedConnectionFactory) {
+            return connectionFactory;
+        }
+        return new InstrumentedConnectionFactory(connectionFactory, this);
+    }
+
+    /**
+     * @param limit the maximum number of statements.
+     * @return the statements which took the longest, slowest first.
+     */
+    public List<Summary> getSlowest(int limit) {
+        return statements
+            .asMap()
+            .values()
+            .stream()
+            .map(StatementStats::summary)
+            .sorted(Comparator.comparingDouble(Summary::maxMillis).reversed())
+            .limit(limit)
+            .toList();
+    }
+
+    /**
+     * @return the statements which took the longest, as many as configured.
+     */
+    public List<Summary> getSlowest() {
+        return getSlowest(properties.getTop());
+    }
+
+    /**
+     * Record the acquisition of a connection.
+     *
+     * @param nanos how long it took, until the connection was given or the acquisition failed.
+     * @param success whether a connection was given.
+     */
+    void recordAcquire(long nanos, boolean success) {
+        (success ? acquired : acquireFailed).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record a run of a statement, once its results have been consumed.
+     *
+     * @param sql the statement.
+     * @param nanos how long it took, from its execution until its results were consumed.
+     * @param batchSize the number of binding sets it was run with.
+     * @param rowsReturned the number of rows read from its results.
+     * @param rowsUpdated the number of rows it updated.
+     * @param bindings the shape of its bindings.
+     */
+    void record(String sql, long nanos, int batchSize, long rowsReturned, long rowsUpdated, String bindings) {
+        String fingerprint = fingerprints.get(sql, StatementMetrics::fingerprint);
+        StatementStats stats = statements.get(fingerprint, key -> new StatementStats(key, meterRegistry));
+        boolean slow = nanos >= properties.getSlowThreshold().toNanos();
+        stats.record(nanos, batchSize, rowsReturned, rowsUpdated, slow);
+        if (slow) {
+            LOG.warn(
+                "Slow statement {} took {} ms, {} rows returned, {} rows updated, bindings {}: {}",
+                stats.id,
+                TimeUnit.NANOSECONDS.toMillis(nanos),
+                rowsReturned,
+                rowsUpdated,
+                bindings,
+                fingerprint
+            );
+        }
+    }
+
+    /**
+     * Normalize a statement: its literals and bind markers become {@code ?}, its lists of values {@code (?, ...)}, and its
+     * whitespace single spaces.
+     */
+    static String fingerprint(String sql) {
+        String fingerprint = STRING_LITERAL.matcher(sql).replaceAll("?");
+        fingerprint = BIND_MARKER.matcher(fingerprint).replaceAll("?");
+        fingerprint = NUMBER_LITERAL.matcher(fingerprint).replaceAll("?");
+        fingerprint = WHITESPACE.matcher(fingerprint).replaceAll(" ").trim();
+        fingerprint = VALUE_LIST.matcher(fingerprint).replaceAll("(?, ...)");
+        return VALUE_ROWS.matcher(fingerprint).replaceAll("$1, ...");
+    }
+
+    /**
+     * The measures of a fingerprint, since it was first seen.
+     *
+     * @param id the short id of the fingerprint, which tags its metrics.
+     * @param statement the fingerprint.
+     * @param count the number of runs.
+     * @param slowCount the number of runs slower than the threshold.
+     * @param meanMillis the mean duration of the runs.
+     * @param maxMillis the longest duration of a run.
+     * @param rowsReturned the number of rows returned by all the runs.
+     * @param rowsUpdated the number of rows updated by all the runs.
+     */
+    public record Summary(
+        String id,
+        String statement,
+        long count,
+        long slowCount,
+        double meanMillis,
+        double maxMillis,
+        long rowsReturned,
+        long rowsUpdated
+    ) {}
+
+    static final class StatementStats {
+
+        private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+        private static final int ID_BYTES = 8;
+
+        private final String id;
+        private final String statement;
+        private final String operation;
+
+        private final MeterRegistry meterRegistry;
+
+        /**
+         * The meters of each batch size bucket the statement was run with.
+         */
+        private final ConcurrentMap<Integer, Meters> meters = new ConcurrentHashMap<>();
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder slowCount = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+        private final LongAdder rowsReturned = new LongAdder();
+        private final LongAdder rowsUpdated = new LongAdder();
+
+        private StatementStats(String statement, MeterRegistry meterRegistry) {
+            this.id = id(statement);
+            this.statement = statement;
+            this.operation = operation(statement);
+            this.meterRegistry = meterRegistry;
+        }
+
+        private record Meters(Timer timer, DistributionSummary returned, DistributionSummary updated) {}
+
+        private Meters meters(int batchSize) {
+            return meters.computeIfAbsent(batchBucket(batchSize), bucket -> {
+                String batch = Integer.toString(bucket);
+                return new Meters(
+                    Timer.builder("r2dbc.statement")
+                        .tag("statement", id)
+                        .tag("operation", operation)
+                        .tag("batch.size", batch)
+                        .description("Runs of a statement, until its results were consumed")
+                        .register(meterRegistry),
+                    DistributionSummary.builder("r2dbc.statement.rows.returned")
+                        .tag("statement", id)
+                        .tag("operation", operation)
+                        .tag("batch.size", batch)
+                        .description("Rows returned by a run of a statement")
+                        .register(meterRegistry),
+                    DistributionSummary.builder("r2dbc.statement.rows.updated")
+                        .tag("statement", id)
+                        .tag("operation", operation)
+                        .tag("batch.size", batch)
+                        .description("Rows updated by a run of a statement")
+                        .register(meterRegistry)
+                );
+            });
+        }
+
+        /**
+         * The batch size rounded up to a power of two.
+         */
+        static int batchBucket(int batchSize) {
+            return batchSize <= 1 ? 1 : Integer.highestOneBit(batchSize - 1) << 1;
+        }
+
+        /**
+         * The first 64 bits of the SHA-256 of the fingerprint - two fingerprints sharing an id would share their meters.
+         */
+        static String id(String statement) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(statement.getBytes(StandardCharsets.UTF_8));
+                return HexFormat.of().formatHex(hash, 0, ID_BYTES);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+
+        private static String operation(String statement) {
+            int end = statement.indexOf(' ');
+            return (end < 0 ? statement : statement.substring(0, end)).toLowerCase(Locale.ROOT);
+        }
+
+        private void record(long nanos, int batchSize, long returnedRows, long updatedRows, boolean slow) {
+            Meters batch = meters(batchSize);
+            batch.timer().record(nanos, TimeUnit.NANOSECONDS);
+            batch.returned().record(returnedRows);
+            batch.updated().record(updatedRows);
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            rowsReturned.add(returnedRows);
+            rowsUpdated.add(updatedRows);
+            if (slow) {
+                slowCount.increment();
+            }
+        }
+
+        private Summary summary() {
+            long runs = count.sum();
+            return new Summary(
+                id,
+                statement,
+                runs,
+                slowCount.sum(),
+                runs == 0 ? 0 : totalNanos.sum() / NANOS_PER_MILLI / runs,
+                maxNanos.get() / NANOS_PER_MILLI,
+                rowsReturned.sum(),
+                rowsUpdated.sum()
+            );
+        }
+
+        private void remove(MeterRegistry meterRegistry) {
+            meters
+                .values()
+                .forEach(batch -> {
+                    meterRegistry.remove(batch.timer());
+                    meterRegistry.remove(batch.returned());
+                    meterRegistry.remove(batch.updated());
+                });
+        }
+    }
+}
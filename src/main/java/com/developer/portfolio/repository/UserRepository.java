@@ -1,17 +1,22 @@
 package com.developer.portfolio.repository;
 
+import static org.springframework.data.relational.core.query.Query.query;
+
 import com.developer.portfolio.domain.Authority;
 import com.developer.portfolio.domain.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import org.apache.commons.beanutils.BeanComparator;
 import org.springframework.data.domain.*;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
@@ -24,6 +29,9 @@ import reactor.util.function.Tuples;
  */
 @Repository
 public interface UserRepository extends R2dbcRepository<User, String>, UserRepositoryInternal {
+    String USERS_BY_LOGIN_CACHE = "usersByLogin";
+
+    @Override
     Mono<User> findOneByLogin(String login);
 
     Flux<User> findAllByIdNotNull(Pageable pageable);
@@ -40,26 +48,64 @@ public interface UserRepository extends R2dbcRepository<User, String>, UserRepos
 
     @Query("DELETE FROM jhi_user_authority WHERE user_id = :userId")
     Mono<Void> deleteUserAuthorities(String userId);
+
+    @Query("UPDATE jhi_user SET sync_fingerprint = :fingerprint WHERE login = :login")
+    Mono<Void> updateSyncFingerprint(String login, String fingerprint);
 }
 
 interface UserRepositoryInternal {
+    /**
+     * Finds a user by login - the concurrent finds of the same login share a single query, see {@link SingleFlight}.
+     */
+    Mono<User> findOneByLogin(String login);
+
     Mono<User> findOneWithAuthoritiesByLogin(String login);
 
     Mono<User> create(User user);
 
     Flux<User> findAllWithAuthorities(Pageable pageable);
+
+    /**
+     * Makes the given authorities the only ones of the user, without reading the current ones - the authorities the user
+     * already has are left unchanged.
+     * @return the number of authority rows affected, as reported by the driver.
+     */
+    Mono<Long> saveUserAuthorities(String userId, Collection<String> authorities);
 }
 
 class UserRepositoryInternalImpl implements UserRepositoryInternal {
 
+    private static final EntityManager.LinkTable USER_AUTHORITY = new EntityManager.LinkTable(
+        "jhi_user_authority",
+        "user_id",
+        "authority_name"
+    );
+
     private final DatabaseClient db;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
     private final R2dbcConverter r2dbcConverter;
-
-    public UserRepositoryInternalImpl(DatabaseClient db, R2dbcEntityTemplate r2dbcEntityTemplate, R2dbcConverter r2dbcConverter) {
+    private final EntityManager entityManager;
+    private final SingleFlight<String, User> findOneByLoginFlight;
+
+    public UserRepositoryInternalImpl(
+        DatabaseClient db,
+        R2dbcEntityTemplate r2dbcEntityTemplate,
+        R2dbcConverter r2dbcConverter,
+        EntityManager entityManager,
+        MeterRegistry meterRegistry
+    ) {
         this.db = db;
         this.r2dbcEntityTemplate = r2dbcEntityTemplate;
         this.r2dbcConverter = r2dbcConverter;
+        this.entityManager = entityManager;
+        this.findOneByLoginFlight = new SingleFlight<>("user.findOneByLogin", meterRegistry, UserRepositoryInternalImpl::copy);
+    }
+
+    @Override
+    public Mono<User> findOneByLogin(String login) {
+        return findOneByLoginFlight.load(login, key ->
+            r2dbcEntityTemplate.selectOne(query(Criteria.where("login").is(key)), User.class)
+        );
     }
 
     @Override
@@ -67,30 +113,58 @@ class UserRepositoryInternalImpl implements UserRepositoryInternal {
         return findOneWithAuthoritiesBy("login", login);
     }
 
+    /**
+     * Finds a page of users in two queries, whatever the number of users: their page, sorted and limited in SQL, then the
+     * authorities of its users only.
+     */
     @Override
     public Flux<User> findAllWithAuthorities(Pageable pageable) {
-        String property = pageable.getSort().stream().map(Sort.Order::getProperty).findFirst().orElse("id");
-        String direction = String.valueOf(
-            pageable.getSort().stream().map(Sort.Order::getDirection).findFirst().orElse(Sort.DEFAULT_DIRECTION)
-        );
-        long page = pageable.getPageNumber();
-        long size = pageable.getPageSize();
-
-        return db
-            .sql("SELECT * FROM jhi_user u LEFT JOIN jhi_user_authority ua ON u.id=ua.user_id")
-            .map((row, metadata) ->
-                Tuples.of(r2dbcConverter.read(User.class, row, metadata), Optional.ofNullable(row.get("authority_name", String.class)))
-            )
+        Sort sort = pageable.getSort();
+        for (Sort.Order order : sort) {
+            if (!UserSqlHelper.SORT_PROPERTIES.contains(order.getProperty())) {
+                return Flux.error(new IllegalArgumentException("Unsupported user sort property: " + order.getProperty()));
+            }
+        }
+        // the id is the tie-breaker, so that the pages neither overlap nor skip users
+        if (sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by(sort.stream().map(Sort.Order::getDirection).findFirst().orElse(Sort.DEFAULT_DIRECTION), "id"));
+        }
+        Pageable page = pageable.isPaged()
+            ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort)
+            : Pageable.unpaged(sort);
+
+        return r2dbcEntityTemplate
+            .select(User.class)
+            .matching(query(Criteria.empty()).with(page))
             .all()
-            .groupBy(t -> t.getT1().getLogin())
-            .flatMap(l -> l.collectList().map(t -> updateUserWithAuthorities(t.get(0).getT1(), t)))
-            .sort(
-                Sort.Direction.fromString(direction) == Sort.DEFAULT_DIRECTION
-                    ? new BeanComparator<>(property)
-                    : new BeanComparator<>(property).reversed()
-            )
-            .skip(page * size)
-            .take(size);
+            .collectList()
+            .filter(users -> !users.isEmpty())
+            .flatMapMany(users -> {
+                List<String> ids = users.stream().map(User::getId).toList();
+                return db
+                    .sql("SELECT ua.user_id, ua.authority_name FROM jhi_user_authority ua WHERE ua.user_id IN (:ids)")
+                    .bind("ids", ids)
+                    .map(row -> Tuples.of(row.get("user_id", String.class), row.get("authority_name", String.class)))
+                    .all()
+                    .collectMultimap(Tuple2::getT1, Tuple2::getT2)
+                    .flatMapIterable(authorities -> {
+                        for (User user : users) {
+                            user.setAuthorities(
+                                authorities
+                                    .getOrDefault(user.getId(), List.of())
+                                    .stream()
+                                    .map(UserRepositoryInternalImpl::authority)
+                                    .collect(Collectors.toSet())
+                            );
+                        }
+                        return users;
+                    });
+            });
+    }
+
+    @Override
+    public Mono<Long> saveUserAuthorities(String userId, Collection<String> authorities) {
+        return entityManager.updateLinkTable(USER_AUTHORITY, userId, authorities.stream());
     }
 
     @Override
@@ -111,19 +185,43 @@ class UserRepositoryInternalImpl implements UserRepositoryInternal {
             .map(l -> updateUserWithAuthorities(l.get(0).getT1(), l));
     }
 
+    /**
+     * Users are shared by the subscribers of a {@link SingleFlight}, so each one gets its own copy which it is free to modify.
+     */
+    private static User copy(User source) {
+        User user = new User();
+        user.setId(source.getId());
+        user.setLogin(source.getLogin());
+        user.setFirstName(source.getFirstName());
+        user.setLastName(source.getLastName());
+        user.setEmail(source.getEmail());
+        user.setActivated(source.isActivated());
+        user.setLangKey(source.getLangKey());
+        user.setImageUrl(source.getImageUrl());
+        user.setSyncFingerprint(source.getSyncFingerprint());
+        user.setAuthorities(new HashSet<>(source.getAuthorities()));
+        user.setCreatedBy(source.getCreatedBy());
+        user.setCreatedDate(source.getCreatedDate());
+        user.setLastModifiedBy(source.getLastModifiedBy());
+        user.setLastModifiedDate(source.getLastModifiedDate());
+        return source.isNew() ? user : user.setIsPersisted();
+    }
+
     private User updateUserWithAuthorities(User user, List<Tuple2<User, Optional<String>>> tuples) {
         user.setAuthorities(
             tuples
                 .stream()
                 .filter(t -> t.getT2().isPresent())
-                .map(t -> {
-                    Authority authority = new Authority();
-                    authority.setName(t.getT2().orElseThrow());
-                    return authority;
-                })
+                .map(t -> authority(t.getT2().orElseThrow()))
                 .collect(Collectors.toSet())
         );
 
         return user;
     }
+
+    private static Authority authority(String name) {
+        Authority authority = new Authority();
+        authority.setName(name);
+        return authority;
+    }
 }
@@ -1,6 +1,12 @@
 package com.developer.portfolio.repository.rowmapper;
 
 import io.r2dbc.spi.Row;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
@@ -11,13 +17,62 @@ import tech.jhipster.service.ColumnConverterReactive;
 
 /**
  * This service provides helper function dealing with the low level {@link Row} and Spring's {@link R2dbcCustomConversions}, so type conversions can be applied.
+ * <p>
+ * The way each column is read is learned on first use and kept as a plan: either directly from the driver, or by converting
+ * the raw value with a conversion resolved once per (value class, target class).
  */
 @Component
 public class ColumnConverter implements ColumnConverterReactive {
 
+    /**
+     * How the values of a column are read.
+     */
+    public enum Strategy {
+        /** Not read yet. */
+        UNRESOLVED,
+        /** The driver produces the target type. */
+        DRIVER,
+        /** The raw value of the driver is converted - the slow path. */
+        CONVERT,
+    }
+
+    /**
+     * The learned plan of a column, with the number of reads which went through the conversion.
+     */
+    public record ColumnPlan(String column, String target, Strategy strategy, String valueType, long fallbacks) {}
+
+    private record PlanKey(String column, Class<?> target) {}
+
+    private record ConversionKey(Class<?> source, Class<?> target) {}
+
+    private static final class Plan {
+
+        private final String column;
+        private final Class<?> target;
+        private final LongAdder fallbacks = new LongAdder();
+        private volatile Strategy strategy = Strategy.UNRESOLVED;
+        private volatile Class<?> valueType;
+
+        private Plan(String column, Class<?> target) {
+            this.column = column;
+            this.target = target;
+        }
+
+        private void fallback(@Nullable Object value) {
+            strategy = Strategy.CONVERT;
+            if (value != null) {
+                valueType = value.getClass();
+            }
+            fallbacks.increment();
+        }
+    }
+
     private final ConversionService conversionService;
     private final R2dbcCustomConversions conversions;
 
+    private final ConcurrentMap<PlanKey, Plan> plans = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ConversionKey, Function<Object, Object>> resolvedConversions = new ConcurrentHashMap<>();
+
     public ColumnConverter(R2dbcCustomConversions conversions, R2dbcConverter r2dbcConverter) {
         this.conversionService = r2dbcConverter.getConversionService();
         this.conversions = conversions;
@@ -33,23 +88,35 @@ public class ColumnConverter implements ColumnConverterReactive {
     @Override
     @SuppressWarnings("unchecked")
     public <T> T convert(@Nullable Object value, @Nullable Class<T> target) {
-        if (value == null || target == null || ClassUtils.isAssignableValue(target, value)) {
+        if (value == null || target == null) {
             return (T) value;
         }
+        return (T) resolvedConversions.computeIfAbsent(new ConversionKey(value.getClass(), target), this::resolveConversion).apply(value);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Function<Object, Object> resolveConversion(ConversionKey key) {
+        Class<?> target = key.target();
+        if (ClassUtils.isAssignable(target, key.source())) {
+            return Function.identity();
+        }
 
-        if (conversions.hasCustomReadTarget(value.getClass(), target)) {
-            return conversionService.convert(value, target);
+        if (conversions.hasCustomReadTarget(key.source(), target)) {
+            return value -> conversionService.convert(value, target);
         }
 
         if (Enum.class.isAssignableFrom(target)) {
-            return (T) Enum.valueOf((Class<Enum>) target, value.toString());
+            return value -> Enum.valueOf((Class<Enum>) target, value.toString());
         }
 
-        return conversionService.convert(value, target);
+        return value -> conversionService.convert(value, target);
     }
 
     /**
      * Convert a value from the {@link Row} to a type - throws an exception, if it's impossible.
+     * <p>
+     * The first read of a column tries the driver conversion, and remembers whether it worked: later reads go straight to the
+     * driver, or straight to the conversion of the raw value, without relying on an exception.
      * @param row which contains the column values.
      * @param target class.
      * @param columnName the name of the column which to convert.
@@ -57,12 +124,64 @@ public class ColumnConverter implements ColumnConverterReactive {
      * @return the value which can be constructed from the input.
      */
     public <T> T fromRow(Row row, String columnName, Class<T> target) {
+        Plan plan = plans.computeIfAbsent(new PlanKey(columnName, target), key -> new Plan(key.column(), key.target()));
+        if (plan.strategy == Strategy.CONVERT) {
+            Object obj = row.get(columnName);
+            plan.fallbacks.increment();
+            return convert(obj, target);
+        }
         try {
             // try, directly the driver
-            return row.get(columnName, target);
+            T value = row.get(columnName, target);
+            plan.strategy = Strategy.DRIVER;
+            return value;
         } catch (Exception e) {
             Object obj = row.get(columnName);
+            plan.fallback(obj);
             return convert(obj, target);
         }
     }
+
+    /**
+     * Choose how to read a column, from the type the driver reports for it: directly from the driver if it already produces the
+     * target type, otherwise by converting the raw value - so reading never relies on a failed driver conversion.
+     * @param columnName the name of the column, used to report its plan.
+     * @param index the index of the column in the row.
+     * @param driverType the java type reported by the driver, or null if unknown.
+     * @param target class.
+     * @return the reader of the column.
+     */
+    public ResolvedColumns.ColumnReader reader(String columnName, int index, @Nullable Class<?> driverType, Class<?> target) {
+        Plan plan = plans.computeIfAbsent(new PlanKey(columnName, target), key -> new Plan(key.column(), key.target()));
+        if (driverType != null && target.isAssignableFrom(ClassUtils.resolvePrimitiveIfNecessary(driverType))) {
+            plan.strategy = Strategy.DRIVER;
+            return row -> row.get(index, target);
+        }
+        plan.strategy = Strategy.CONVERT;
+        plan.valueType = driverType;
+        return row -> {
+            plan.fallbacks.increment();
+            return convert(row.get(index), target);
+        };
+    }
+
+    /**
+     * @return the learned plans of all the columns read so far, the ones going through the conversion first.
+     */
+    public List<ColumnPlan> getPlans() {
+        return plans
+            .values()
+            .stream()
+            .map(plan ->
+                new ColumnPlan(
+                    plan.column,
+                    plan.target.getName(),
+                    plan.strategy,
+                    plan.valueType != null ? plan.valueType.getName() : null,
+                    plan.fallbacks.sum()
+                )
+            )
+            .sorted(Comparator.comparingLong(ColumnPlan::fallbacks).reversed().thenComparing(ColumnPlan::column))
+            .toList();
+    }
 }
@@ -2,6 +2,7 @@ package com.developer.portfolio.repository.rowmapper;
 
 import com.developer.portfolio.domain.Portfolio;
 import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
 import java.util.function.BiFunction;
 import org.springframework.stereotype.Service;
 
@@ -11,10 +12,24 @@ import org.springframework.stereotype.Service;
 @Service
 public class PortfolioRowMapper implements BiFunction<Row, String, Portfolio> {
 
+    private static final String[] COLUMNS = { "_id", "_project_name", "_description", "_image_url", "_link", "_version", "_user_id" };
+    private static final Class<?>[] TYPES = {
+        Long.class,
+        String.class,
+        String.class,
+        String.class,
+        String.class,
+        Long.class,
+        String.class,
+    };
+
     private final ColumnConverter converter;
 
+    private final ResolvedColumns.Resolver resolver;
+
     public PortfolioRowMapper(ColumnConverter converter) {
         this.converter = converter;
+        this.resolver = new ResolvedColumns.Resolver(COLUMNS, TYPES, converter);
     }
 
     /**
@@ -29,7 +44,26 @@ public class PortfolioRowMapper implements BiFunction<Row, String, Portfolio> {
         entity.setDescription(converter.fromRow(row, prefix + "_description", String.class));
         entity.setImageUrl(converter.fromRow(row, prefix + "_image_url", String.class));
         entity.setLink(converter.fromRow(row, prefix + "_link", String.class));
+        entity.setVersion(converter.fromRow(row, prefix + "_version", Long.class));
         entity.setUserId(converter.fromRow(row, prefix + "_user_id", String.class));
         return entity;
     }
+
+    /**
+     * Take a {@link Row} and a column prefix, and extract all the fields by index - the indexes and conversions are resolved once
+     * per shape of result, so no column name is built while mapping the rows of a result.
+     * @return the {@link Portfolio} stored in the database.
+     */
+    public Portfolio apply(Row row, RowMetadata metadata, String prefix) {
+        ResolvedColumns columns = resolver.resolve(metadata, prefix);
+        Portfolio entity = new Portfolio();
+        entity.setId(columns.get(row, 0));
+        entity.setProjectName(columns.get(row, 1));
+        entity.setDescription(columns.get(row, 2));
+        entity.setImageUrl(columns.get(row, 3));
+        entity.setLink(columns.get(row, 4));
+        entity.setVersion(columns.get(row, 5));
+        entity.setUserId(columns.get(row, 6));
+        return entity;
+    }
 }
@@ -0,0 +1,148 @@
+package com.developer.portfolio.repository.rowmapper;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The columns of an entity resolved against one {@link RowMetadata} shape: for each expected column, its index in the row and
+ * the reader applying the type conversion, so rows can be read by index without building column names.
+ */
+public final class ResolvedColumns {
+
+    /**
+     * Reads one column from a {@link Row}, with the conversion to the target type already chosen.
+     */
+    @FunctionalInterface
+    public interface ColumnReader {
+        Object read(Row row);
+    }
+
+    /**
+     * Resolves the columns of an entity, once per shape of result: the resolved columns are kept by prefix and by the ordered
+     * names and driver types of the columns, so that the queries of different shapes don't resolve them again in turn.
+     */
+    public static final class Resolver {
+
+        private static final int MAXIMUM_SHAPES = 64;
+
+        private final String[] suffixes;
+        private final Class<?>[] targets;
+        private final ColumnConverter converter;
+
+        private final Cache<Shape, ResolvedColumns> shapes = Caffeine.newBuilder().maximumSize(MAXIMUM_SHAPES).build();
+
+        /**
+         * The last resolved metadata instance, which the rows of a same result share.
+         */
+        private volatile Resolved last;
+
+        /**
+         * @param suffixes the column names, without the prefix.
+         * @param targets the target type of each column.
+         * @param converter the converter used to choose the reader of each column.
+         */
+        public Resolver(String[] suffixes, Class<?>[] targets, ColumnConverter converter) {
+            this.suffixes = suffixes;
+            this.targets = targets;
+            this.converter = converter;
+        }
+
+        /**
+         * @param metadata the metadata of the rows to read.
+         * @param prefix the column prefix, as used by the {@code SqlHelper} of the entity.
+         * @return the columns resolved for the shape of the metadata.
+         */
+        public ResolvedColumns resolve(RowMetadata metadata, String prefix) {
+            Resolved current = last;
+            if (current != null && current.metadata() == metadata && current.prefix().equals(prefix)) {
+                return current.columns();
+            }
+            List<? extends ColumnMetadata> metadatas = metadata.getColumnMetadatas();
+            ResolvedColumns columns = shapes.get(Shape.of(metadatas, prefix), shape ->
+                ResolvedColumns.resolve(metadatas, prefix, suffixes, targets, converter)
+            );
+            last = new Resolved(metadata, prefix, columns);
+            return columns;
+        }
+
+        private record Resolved(RowMetadata metadata, String prefix, ResolvedColumns columns) {}
+
+        private record Shape(String prefix, List<String> names, List<Class<?>> types) {
+            static Shape of(List<? extends ColumnMetadata> columns, String prefix) {
+                List<String> names = new ArrayList<>(columns.size());
+                List<Class<?>> types = new ArrayList<>(columns.size());
+                for (ColumnMetadata column : columns) {
+                    names.add(column.getName());
+                    types.add(column.getJavaType());
+                }
+                return new Shape(prefix, names, types);
+            }
+        }
+    }
+
+    private static final ColumnReader ABSENT = row -> null;
+
+    private final ColumnReader[] readers;
+
+    private ResolvedColumns(ColumnReader[] readers) {
+        this.readers = readers;
+    }
+
+    /**
+     * Resolve the given columns against the metadata - a column missing from the result is read as {@code null}.
+     * @param metadata the metadata of the rows to read.
+     * @param prefix the column prefix, as used by the {@code SqlHelper} of the entity.
+     * @param suffixes the column names, without the prefix.
+     * @param targets the target type of each column.
+     * @param converter the converter used to choose the reader of each column.
+     * @return the resolved columns.
+     */
+    public static ResolvedColumns resolve(
+        RowMetadata metadata,
+        String prefix,
+        String[] suffixes,
+        Class<?>[] targets,
+        ColumnConverter converter
+    ) {
+        return resolve(metadata.getColumnMetadatas(), prefix, suffixes, targets, converter);
+    }
+
+    private static ResolvedColumns resolve(
+        List<? extends ColumnMetadata> columns,
+        String prefix,
+        String[] suffixes,
+        Class<?>[] targets,
+        ColumnConverter converter
+    ) {
+        ColumnReader[] readers = new ColumnReader[suffixes.length];
+        for (int i = 0; i < suffixes.length; i++) {
+            String name = prefix + suffixes[i];
+            readers[i] = ABSENT;
+            for (int index = 0; index < columns.size(); index++) {
+                ColumnMetadata column = columns.get(index);
+                if (column.getName().equalsIgnoreCase(name)) {
+                    readers[i] = converter.reader(name, index, column.getJavaType(), targets[i]);
+                    break;
+                }
+            }
+        }
+        return new ResolvedColumns(readers);
+    }
+
+    /**
+     * Read the given column of the row.
+     * @param row the row to read.
+     * @param column the position of the column in the {@code suffixes} used to resolve.
+     * @param <T> the target type of the column.
+     * @return the converted value.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Row row, int column) {
+        return (T) readers[column].read(row);
+    }
+}
@@ -2,6 +2,7 @@ package com.developer.portfolio.repository.rowmapper;
 
 import com.developer.portfolio.domain.User;
 import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
 import java.util.function.BiFunction;
 import org.springframework.stereotype.Service;
 
@@ -11,10 +12,34 @@ import org.springframework.stereotype.Service;
 @Service
 public class UserRowMapper implements BiFunction<Row, String, User> {
 
+    private static final String[] COLUMNS = {
+        "_id",
+        "_login",
+        "_first_name",
+        "_last_name",
+        "_email",
+        "_activated",
+        "_lang_key",
+        "_image_url",
+    };
+    private static final Class<?>[] TYPES = {
+        String.class,
+        String.class,
+        String.class,
+        String.class,
+        String.class,
+        Boolean.class,
+        String.class,
+        String.class,
+    };
+
     private final ColumnConverter converter;
 
+    private final ResolvedColumns.Resolver resolver;
+
     public UserRowMapper(ColumnConverter converter) {
         this.converter = converter;
+        this.resolver = new ResolvedColumns.Resolver(COLUMNS, TYPES, converter);
     }
 
     /**
@@ -34,4 +59,23 @@ public class UserRowMapper implements BiFunction<Row, String, User> {
         entity.setImageUrl(converter.fromRow(row, prefix + "_image_url", String.class));
         return entity;
     }
+
+    /**
+     * Take a {@link Row} and a column prefix, and extract all the fields by index - the indexes and conversions are resolved once
+     * per shape of result, so no column name is built while mapping the rows of a result.
+     * @return the {@link User} stored in the database.
+     */
+    public User apply(Row row, RowMetadata metadata, String prefix) {
+        ResolvedColumns columns = resolver.resolve(metadata, prefix);
+        User entity = new User();
+        entity.setId(columns.get(row, 0));
+        entity.setLogin(columns.get(row, 1));
+        entity.setFirstName(columns.get(row, 2));
+        entity.setLastName(columns.get(row, 3));
+        entity.setEmail(columns.get(row, 4));
+        entity.setActivated(Boolean.TRUE.equals(columns.get(row, 5)));
+        entity.setLangKey(columns.get(row, 6));
+        entity.setImageUrl(columns.get(row, 7));
+        return entity;
+    }
 }
@@ -0,0 +1,94 @@
+package com.developer.portfolio.security.oauth2;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import reactor.core.publisher.Mono;
+
+/**
+ * The user info of the subjects, as returned by the identity provider.
+ * <p>
+ * The concurrent requests of a subject share a single call to the identity provider. Its user info is refreshed in the
+ * background once it is older than the refresh interval, with the latest token of the subject, while the cached one is still
+ * served - and kept if the identity provider fails, until it is older than the expiry, a few refresh intervals: a user info is
+ * never served more than the expiry after it was fetched.
+ * <p>
+ * The hits, misses and load times are exported as the {@code cache.*} metrics of the {@code oauth2.userinfo} cache.
+ */
+public class UserInfoCache {
+
+    public static final String CACHE_NAME = "oauth2.userinfo";
+
+    private static final long MAXIMUM_SIZE = 10_000;
+
+    /**
+     * The latest token of each subject, to refresh its user info with.
+     */
+    private final Cache<String, String> tokens;
+
+    private final AsyncLoadingCache<String, Map<String, Object>> userInfos;
+
+    /**
+     * @param fetch gets the user info of the subject of the given token.
+     * @param refreshAfter how long the user info is served before being refreshed.
+     * @param expireAfter how long after it was fetched the user info is dropped, if it could not be refreshed.
+     * @param meterRegistry the registry of the metrics of the cache.
+     */
+    public UserInfoCache(
+        Function<String, Mono<Map<String, Object>>> fetch,
+        Duration refreshAfter,
+        Duration expireAfter,
+        MeterRegistry meterRegistry
+    ) {
+        this(fetch, refreshAfter, expireAfter, meterRegistry, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    UserInfoCache(
+        Function<String, Mono<Map<String, Object>>> fetch,
+        Duration refreshAfter,
+        Duration expireAfter,
+        MeterRegistry meterRegistry,
+        Ticker ticker,
+        Executor executor
+    ) {
+        this.tokens = Caffeine.newBuilder().maximumSize(MAXIMUM_SIZE).expireAfterWrite(expireAfter).ticker(ticker).build();
+        this.userInfos = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .refreshAfterWrite(refreshAfter)
+            .expireAfterWrite(expireAfter)
+            .ticker(ticker)
+            .executor(executor)
+            .recordStats()
+            .buildAsync((subject, loadExecutor) -> load(fetch, subject));
+        CaffeineCacheMetrics.monitor(meterRegistry, userInfos, CACHE_NAME);
+    }
+
+    private CompletableFuture<Map<String, Object>> load(Function<String, Mono<Map<String, Object>>> fetch, String subject) {
+        String token = tokens.getIfPresent(subject);
+        if (token == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("No token to get the user info of " + subject));
+        }
+        return fetch.apply(token).toFuture();
+    }
+
+    /**
+     * @param subject the subject of the token.
+     * @param token the token, to get the user info with if it isn't cached.
+     * @return the user info of the subject, which must not be modified.
+     */
+    public Mono<Map<String, Object>> get(String subject, String token) {
+        return Mono.defer(() -> {
+            tokens.put(subject, token);
+            return Mono.fromFuture(userInfos.get(subject), true);
+        });
+    }
+}
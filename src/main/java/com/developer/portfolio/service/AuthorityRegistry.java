@@ -0,0 +1,238 @@
+package com.developer.portfolio.service;
+
+import com.developer.portfolio.config.ApplicationProperties;
+import com.developer.portfolio.domain.Authority;
+import com.developer.portfolio.repository.AuthorityRepository;
+import com.developer.portfolio.repository.CacheInvalidationBus;
+import com.developer.portfolio.repository.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The names of all the authorities, held in memory so that checking them doesn't read the {@code jhi_authority} table.
+ * <p>
+ * The names are loaded while the application starts, and replaced by a new copy on every change made through this registry,
+ * once its transaction is committed. The changes made by the other nodes come through the {@link CacheInvalidationBus}: the
+ * names are then loaded again on their next use - as they are once older than {@code application.cache.authorities.time-to-live},
+ * should an invalidation be missed. The concurrent uses waiting for the names share a single load.
+ */
+@Service
+public class AuthorityRegistry implements ApplicationRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AuthorityRegistry.class);
+
+    public static final String AUTHORITIES_CACHE = "authorities";
+
+    private static final Duration LOAD_TIMEOUT = Duration.ofSeconds(30);
+
+    private final AuthorityRepository authorityRepository;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final ApplicationProperties.EntityCache properties;
+
+    /**
+     * The names of the authorities, or null until they are loaded.
+     */
+    private volatile Set<String> names;
+
+    /**
+     * When the names were loaded, from {@link System#nanoTime()}.
+     */
+    private volatile long loadedAt;
+
+    /**
+     * Incremented on every invalidation, so that a load started before it doesn't keep stale names.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Coalesces the concurrent loads of a same generation - the uses after an invalidation don't join a load started before it.
+     */
+    private final SingleFlight<Long, Set<String>> loads;
+
+    public AuthorityRegistry(
+        AuthorityRepository authorityRepository,
+        CacheInvalidationBus cacheInvalidationBus,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.authorityRepository = authorityRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.properties = applicationProperties.getCache().getAuthorities();
+        this.loads = new SingleFlight<>("authorities", meterRegistry, UnaryOperator.identity());
+        // the changes made on this node are applied once committed, they don't need to be loaded again
+        cacheInvalidationBus.subscribeRemote(AUTHORITIES_CACHE, key -> invalidate());
+    }
+
+    /**
+     * Load the names before the application is reported as ready - if it fails, they are loaded on their first use.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            Set<String> loaded = getNames().block(LOAD_TIMEOUT);
+            LOG.debug("Loaded {} authorities", loaded != null ? loaded.size() : 0);
+        } catch (RuntimeException e) {
+            LOG.warn("Could not load the authorities, they will be loaded on their first use: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the names of all the authorities, as an immutable set.
+     */
+    public Mono<Set<String>> getNames() {
+        return Mono.defer(() -> {
+            Set<String> current = names;
+            if (current != null && properties.isEnabled() && System.nanoTime() - loadedAt < properties.getTimeToLive().toNanos()) {
+                return Mono.just(current);
+            }
+            return loads.load(generation.get(), loadedGeneration ->
+                authorityRepository
+                    .findAll()
+                    .map(Authority::getName)
+                    .collect(Collectors.toUnmodifiableSet())
+                    .doOnNext(loaded -> loaded(loaded, loadedGeneration))
+            );
+        });
+    }
+
+    /**
+     * @return all the authorities, sorted by name.
+     */
+    public Flux<Authority> findAll() {
+        return getNames().flatMapIterable(current -> current.stream().sorted().map(AuthorityRegistry::authority).toList());
+    }
+
+    /**
+     * @return whether an authority has the given name.
+     */
+    public Mono<Boolean> contains(String name) {
+        return getNames().map(current -> current.contains(name));
+    }
+
+    /**
+     * Create the authority.
+     *
+     * @return the created authority.
+     */
+    public Mono<Authority> create(Authority authority) {
+        return authorityRepository
+            .save(authority)
+            .flatMap(saved ->
+                cacheInvalidationBus
+                    .publish(AUTHORITIES_CACHE, saved.getName())
+                    .then(afterCommit(() -> update(current -> current.add(saved.getName()))))
+                    .thenReturn(saved)
+            );
+    }
+
+    /**
+     * Create the authorities which don't exist yet - another node may create the same ones concurrently.
+     *
+     * @param candidates the names of the authorities which must exist.
+     * @return a {@link Mono} completing once they all exist.
+     */
+    public Mono<Void> createMissing(Collection<String> candidates) {
+        return getNames()
+            .flatMapMany(current -> Flux.fromIterable(candidates).filter(name -> !current.contains(name)).distinct())
+            .doOnNext(name -> LOG.debug("Saving authority '{}' in local database", name))
+            .concatMap(name ->
+                authorityRepository
+                    .save(authority(name))
+                    .map(Authority::getName)
+                    .onErrorResume(DuplicateKeyException.class, e -> Mono.just(name))
+            )
+            .collectList()
+            .filter(created -> !created.isEmpty())
+            .flatMap(created ->
+                cacheInvalidationBus.publish(AUTHORITIES_CACHE, created).then(afterCommit(() -> update(current -> current.addAll(created))))
+            );
+    }
+
+    /**
+     * Delete the authority.
+     *
+     * @return a {@link Mono} completing once it is deleted.
+     */
+    public Mono<Void> delete(String name) {
+        return authorityRepository
+            .deleteById(name)
+            .then(cacheInvalidationBus.publish(AUTHORITIES_CACHE, name))
+            .then(afterCommit(() -> update(current -> current.remove(name))));
+    }
+
+    /**
+     * Apply a change to the names once the current transaction, if any, is committed - or forget them if it is rolled back,
+     * as they may have been loaded within it.
+     */
+    private Mono<Void> afterCommit(Runnable change) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+            .filter(TransactionSynchronizationManager::isSynchronizationActive)
+            .doOnNext(synchronizationManager ->
+                synchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCompletion(int status) {
+                            return Mono.fromRunnable(status == STATUS_COMMITTED ? change : AuthorityRegistry.this::invalidate);
+                        }
+                    }
+                )
+            )
+            .switchIfEmpty(Mono.fromRunnable(change))
+            .onErrorResume(NoTransactionException.class, e -> Mono.fromRunnable(change))
+            .then();
+    }
+
+    private synchronized void loaded(Set<String> loaded, long loadedGeneration) {
+        if (generation.get() == loadedGeneration) {
+            names = loaded;
+            loadedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Forget the names, so that they are loaded again on their next use - after the table was written without this registry.
+     */
+    public synchronized void invalidate() {
+        generation.incrementAndGet();
+        names = null;
+    }
+
+    /**
+     * Replace the names by an updated copy - unless they are not loaded, then they will be loaded with the update.
+     */
+    private synchronized void update(Consumer<Set<String>> change) {
+        // a load in progress may have read the table before the change
+        generation.incrementAndGet();
+        if (names != null) {
+            Set<String> updated = new HashSet<>(names);
+            change.accept(updated);
+            names = Set.copyOf(updated);
+        }
+    }
+
+    private static Authority authority(String name) {
+        Authority authority = new Authority();
+        authority.setName(name);
+        return authority;
+    }
+}
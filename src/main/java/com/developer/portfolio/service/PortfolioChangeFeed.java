@@ -0,0 +1,140 @@
+package com.developer.portfolio.service;
+
+import com.developer.portfolio.config.ApplicationProperties;
+import com.developer.portfolio.service.dto.PortfolioChangeDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.ConnectableFlux;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Feed of the changes of the portfolios made through this node, shared by all its subscribers.
+ * <p>
+ * A single multicast sink fans the changes out: a subscriber only costs its subscription and a buffer of at most
+ * {@code application.changes.buffer-size} changes, from which the oldest ones are dropped if it doesn't keep up. The last
+ * {@code application.changes.history-size} changes are kept, so a subscriber can resume after the last one it received.
+ */
+@Service
+public class PortfolioChangeFeed {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PortfolioChangeFeed.class);
+
+    /**
+     * A change, with its position in the feed.
+     */
+    public record Event(long id, PortfolioChangeDTO change) {}
+
+    private final Sinks.Many<Event> sink = Sinks.many().multicast().directBestEffort();
+
+    private final Deque<Event> history = new ArrayDeque<>();
+
+    private final int bufferSize;
+
+    private final int historySize;
+
+    private final Counter dropped;
+
+    /**
+     * The ids start from the clock, so that the ids received before a restart are lower than the new ones.
+     */
+    private long lastId = System.currentTimeMillis();
+
+    public PortfolioChangeFeed(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.bufferSize = applicationProperties.getChanges().getBufferSize();
+        this.historySize = applicationProperties.getChanges().getHistorySize();
+        this.dropped = Counter.builder("portfolio.changes.dropped")
+            .description("Changes dropped for subscribers which did not keep up")
+            .register(meterRegistry);
+        Gauge.builder("portfolio.changes.subscribers", sink, Sinks.Many::currentSubscriberCount)
+            .description("Subscribers of the portfolio change feed")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Publish a change once the current transaction, if any, is committed - it is never published if it's rolled back.
+     * @param change the change to publish.
+     * @return a {@link Mono} completing when the change is published, or registered to be.
+     */
+    public Mono<Void> publish(PortfolioChangeDTO change) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+            .filter(TransactionSynchronizationManager::isSynchronizationActive)
+            .doOnNext(synchronizationManager ->
+                synchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCommit() {
+                            return Mono.fromRunnable(() -> emit(change));
+                        }
+                    }
+                )
+            )
+            .switchIfEmpty(Mono.fromRunnable(() -> emit(change)))
+            .onErrorResume(NoTransactionException.class, e -> Mono.fromRunnable(() -> emit(change)))
+            .then();
+    }
+
+    private synchronized void emit(PortfolioChangeDTO change) {
+        Event event = new Event(++lastId, change);
+        history.addLast(event);
+        if (history.size() > historySize) {
+            history.removeFirst();
+        }
+        // emissions are serialized by the lock, so the only failure is having no subscriber
+        sink.tryEmitNext(event);
+    }
+
+    /**
+     * Subscribe to the changes.
+     * @param lastEventId the id of the last change received before, to resume after it - or null to only get the next changes.
+     * @return the changes, which never completes.
+     */
+    public Flux<Event> changes(Long lastEventId) {
+        Flux<Event> live = sink
+            .asFlux()
+            .onBackpressureBuffer(
+                bufferSize,
+                event -> {
+                    dropped.increment();
+                    LOG.debug("Dropped portfolio change {} for a slow subscriber", event.id());
+                },
+                BufferOverflowStrategy.DROP_OLDEST
+            );
+        if (lastEventId == null) {
+            return live;
+        }
+        return Flux.defer(() -> {
+            // subscribe before reading the history, so that no change falls in between - the ones in both are skipped
+            ConnectableFlux<Event> buffered = live.publish(1);
+            Disposable connection = buffered.connect();
+            List<Event> missed = historyAfter(lastEventId);
+            long replayed = missed.isEmpty() ? Long.MIN_VALUE : missed.get(missed.size() - 1).id();
+            return Flux.fromIterable(missed)
+                .concatWith(buffered.filter(event -> event.id() > replayed))
+                .doFinally(signal -> connection.dispose());
+        });
+    }
+
+    /**
+     * @return the changes after the given one still in the history, or none if it was not published by this node.
+     */
+    private synchronized List<Event> historyAfter(long lastEventId) {
+        if (lastEventId > lastId) {
+            return List.of();
+        }
+        return history.stream().filter(event -> event.id() > lastEventId).toList();
+    }
+}
@@ -1,13 +1,21 @@
 package com.developer.portfolio.service;
 
+import com.developer.portfolio.config.ApplicationProperties;
 import com.developer.portfolio.config.Constants;
 import com.developer.portfolio.domain.Authority;
 import com.developer.portfolio.domain.User;
-import com.developer.portfolio.repository.AuthorityRepository;
+import com.developer.portfolio.repository.CacheInvalidationBus;
 import com.developer.portfolio.repository.UserRepository;
 import com.developer.portfolio.security.SecurityUtils;
 import com.developer.portfolio.service.dto.AdminUserDTO;
 import com.developer.portfolio.service.dto.UserDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -33,11 +41,44 @@ public class UserService {
 
     private final UserRepository userRepository;
 
-    private final AuthorityRepository authorityRepository;
+    private final AuthorityRegistry authorityRegistry;
 
-    public UserService(UserRepository userRepository, AuthorityRepository authorityRepository) {
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    /**
+     * The fingerprints of the users last synchronized with the identity provider, by login - see {@link #syncFingerprint}.
+     */
+    private final Cache<String, String> syncFingerprints;
+
+    public UserService(
+        UserRepository userRepository,
+        AuthorityRegistry authorityRegistry,
+        CacheInvalidationBus cacheInvalidationBus,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
         this.userRepository = userRepository;
-        this.authorityRepository = authorityRepository;
+        this.authorityRegistry = authorityRegistry;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        ApplicationProperties.EntityCache cacheProperties = applicationProperties.getCache().getUserSync();
+        if (cacheProperties.isEnabled()) {
+            this.syncFingerprints = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getMaximumSize())
+                .expireAfterWrite(cacheProperties.getTimeToLive())
+                .recordStats()
+                .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, syncFingerprints, "user.sync");
+            // a user written by anyone - this node, another one, or an administrator - is synchronized again
+            cacheInvalidationBus.subscribe(UserRepository.USERS_BY_LOGIN_CACHE, login -> {
+                if (CacheInvalidationBus.ALL_KEYS.equals(login)) {
+                    syncFingerprints.invalidateAll();
+                } else {
+                    syncFingerprints.invalidate(login);
+                }
+            });
+        } else {
+            this.syncFingerprints = null;
+        }
     }
 
     /**
@@ -52,8 +93,9 @@ public class UserService {
      */
     @Transactional
     public Mono<Void> updateUser(String firstName, String lastName, String email, String langKey, String imageUrl) {
+        // the authorities of the user are saved with it, so they are read with it
         return SecurityUtils.getCurrentUserLogin()
-            .flatMap(userRepository::findOneByLogin)
+            .flatMap(userRepository::findOneWithAuthoritiesByLogin)
             .flatMap(user -> {
                 user.setFirstName(firstName);
                 user.setLastName(lastName);
@@ -73,6 +115,13 @@ public class UserService {
         return saveUser(user, false);
     }
 
+    /**
+     * Saves the user, and makes its authorities the only ones it has in the database.
+     *
+     * @param user the user, with all its authorities.
+     * @param forceCreate whether the user must be inserted, as its id is set but it doesn't exist yet.
+     * @return the saved user.
+     */
     @Transactional
     public Mono<User> saveUser(User user, boolean forceCreate) {
         return SecurityUtils.getCurrentUserLogin()
@@ -91,8 +140,10 @@ public class UserService {
                     persistedUser = userRepository.save(user);
                 }
                 return persistedUser.flatMap(savedUser ->
-                    Flux.fromIterable(user.getAuthorities())
-                        .flatMap(authority -> userRepository.saveUserAuthority(savedUser.getId(), authority.getName()))
+                    userRepository
+                        .saveUserAuthorities(savedUser.getId(), user.getAuthorities().stream().map(Authority::getName).toList())
+                        // published once the transaction is committed, when the other nodes can read the saved user
+                        .then(cacheInvalidationBus.publish(UserRepository.USERS_BY_LOGIN_CACHE, savedUser.getLogin()))
                         .then(Mono.just(savedUser))
                 );
             });
@@ -122,31 +173,41 @@ public class UserService {
      * Gets a list of all the authorities.
      * @return a list of all the authorities.
      */
-    @Transactional(readOnly = true)
     public Flux<String> getAuthorities() {
-        return authorityRepository.findAll().map(Authority::getName);
+        return authorityRegistry.findAll().map(Authority::getName);
     }
 
+    /**
+     * Synchronize the user with the claims of the identity provider, unless it already was with the same claims: then it
+     * takes a single read, or none once its fingerprint is cached.
+     */
     private Mono<User> syncUserWithIdP(Map<String, Object> details, User user) {
+        String fingerprint = syncFingerprint(user, details.get("updated_at"));
+        if (syncFingerprints != null && fingerprint.equals(syncFingerprints.getIfPresent(user.getLogin()))) {
+            return Mono.just(user);
+        }
+        return userRepository
+            .findOneByLogin(user.getLogin())
+            .filter(existingUser -> fingerprint.equals(existingUser.getSyncFingerprint()))
+            .map(existingUser -> user)
+            .switchIfEmpty(
+                Mono.defer(() -> fullSyncUserWithIdP(details, user))
+                    .then(Mono.defer(() -> userRepository.updateSyncFingerprint(user.getLogin(), fingerprint)))
+                    .thenReturn(user)
+            )
+            .doOnNext(synced -> {
+                if (syncFingerprints != null) {
+                    syncFingerprints.put(user.getLogin(), fingerprint);
+                }
+            });
+    }
+
+    private Mono<User> fullSyncUserWithIdP(Map<String, Object> details, User user) {
         // save authorities in to sync user roles/groups between IdP and JHipster's local database
         Collection<String> userAuthorities = user.getAuthorities().stream().map(Authority::getName).toList();
 
-        return getAuthorities()
-            .collectList()
-            .flatMapMany(dbAuthorities -> {
-                List<Authority> authoritiesToSave = userAuthorities
-                    .stream()
-                    .filter(authority -> !dbAuthorities.contains(authority))
-                    .map(authority -> {
-                        Authority authorityToSave = new Authority();
-                        authorityToSave.setName(authority);
-                        return authorityToSave;
-                    })
-                    .toList();
-                return Flux.fromIterable(authoritiesToSave);
-            })
-            .doOnNext(authority -> LOG.debug("Saving authority '{}' in local database", authority))
-            .flatMap(authorityRepository::save)
+        return authorityRegistry
+            .createMissing(userAuthorities)
             .then(userRepository.findOneByLogin(user.getLogin()))
             .switchIfEmpty(saveUser(user, true))
             .flatMap(existingUser -> {
@@ -172,6 +233,31 @@ public class UserService {
             .thenReturn(user);
     }
 
+    /**
+     * @return a hash of what is synchronized from the identity provider: the user, their authorities, and when the identity
+     * provider last updated them.
+     */
+    static String syncFingerprint(User user, Object updatedAt) {
+        StringJoiner claims = new StringJoiner("\u0000");
+        claims
+            .add(user.getId())
+            .add(user.getLogin())
+            .add(user.getFirstName())
+            .add(user.getLastName())
+            .add(user.getEmail())
+            .add(String.valueOf(user.isActivated()))
+            .add(user.getLangKey())
+            .add(user.getImageUrl())
+            .add(String.valueOf(updatedAt));
+        user.getAuthorities().stream().map(Authority::getName).sorted().forEach(claims::add);
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(claims.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     /**
      * Returns the user from an OAuth 2.0 login or resource server with JWT.
      * Synchronizes the user in the local repository.
@@ -0,0 +1,72 @@
+package com.developer.portfolio.service.dto;
+
+import com.developer.portfolio.domain.Portfolio;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.io.Serializable;
+
+/**
+ * A DTO representing a change of a {@link Portfolio}, as sent by the change feed.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PortfolioChangeDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+    }
+
+    private Type type;
+
+    private Long id;
+
+    private Portfolio portfolio;
+
+    public PortfolioChangeDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public PortfolioChangeDTO(Type type, Long id, Portfolio portfolio) {
+        this.type = type;
+        this.id = id;
+        this.portfolio = portfolio;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the portfolio as written, or null if it was deleted.
+     */
+    public Portfolio getPortfolio() {
+        return portfolio;
+    }
+
+    public void setPortfolio(Portfolio portfolio) {
+        this.portfolio = portfolio;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PortfolioChangeDTO{" +
+            "type=" + type +
+            ", id=" + id +
+            "}";
+    }
+}
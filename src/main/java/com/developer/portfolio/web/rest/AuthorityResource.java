@@ -1,7 +1,7 @@
 package com.developer.portfolio.web.rest;
 
 import com.developer.portfolio.domain.Authority;
-import com.developer.portfolio.repository.AuthorityRepository;
+import com.developer.portfolio.service.AuthorityRegistry;
 import com.developer.portfolio.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import java.net.URI;
@@ -35,10 +35,10 @@ public class AuthorityResource {
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
-    private final AuthorityRepository authorityRepository;
+    private final AuthorityRegistry authorityRegistry;
 
-    public AuthorityResource(AuthorityRepository authorityRepository) {
-        this.authorityRepository = authorityRepository;
+    public AuthorityResource(AuthorityRegistry authorityRegistry) {
+        this.authorityRegistry = authorityRegistry;
     }
 
     /**
@@ -52,14 +52,14 @@ public class AuthorityResource {
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
     public Mono<ResponseEntity<Authority>> createAuthority(@Valid @RequestBody Authority authority) throws URISyntaxException {
         LOG.debug("REST request to save Authority : {}", authority);
-        return authorityRepository
-            .existsById(authority.getName())
+        return authorityRegistry
+            .contains(authority.getName())
             .flatMap(exists -> {
                 if (exists) {
                     return Mono.error(new BadRequestAlertException("authority already exists", ENTITY_NAME, "idexists"));
                 }
-                return authorityRepository
-                    .save(authority)
+                return authorityRegistry
+                    .create(authority)
                     .map(result -> {
                         try {
                             return ResponseEntity.created(new URI("/api/authorities/" + result.getName()))
@@ -81,7 +81,7 @@ public class AuthorityResource {
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
     public Mono<List<Authority>> getAllAuthorities() {
         LOG.debug("REST request to get all Authorities");
-        return authorityRepository.findAll().collectList();
+        return authorityRegistry.findAll().collectList();
     }
 
     /**
@@ -92,7 +92,7 @@ public class AuthorityResource {
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
     public Flux<Authority> getAllAuthoritiesAsStream() {
         LOG.debug("REST request to get all Authorities as a stream");
-        return authorityRepository.findAll();
+        return authorityRegistry.findAll();
     }
 
     /**
@@ -105,7 +105,7 @@ public class AuthorityResource {
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
     public Mono<ResponseEntity<Authority>> getAuthority(@PathVariable("id") String id) {
         LOG.debug("REST request to get Authority : {}", id);
-        Mono<Authority> authority = authorityRepository.findById(id);
+        Mono<Authority> authority = authorityRegistry.contains(id).filter(Boolean::booleanValue).map(exists -> new Authority().name(id));
         return ResponseUtil.wrapOrNotFound(authority);
     }
 
@@ -119,8 +119,8 @@ public class AuthorityResource {
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
     public Mono<ResponseEntity<Void>> deleteAuthority(@PathVariable("id") String id) {
         LOG.debug("REST request to delete Authority : {}", id);
-        return authorityRepository
-            .deleteById(id)
+        return authorityRegistry
+            .delete(id)
             .then(
                 Mono.just(
                     ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id)).build()
@@ -1,31 +1,52 @@
 package com.developer.portfolio.web.rest;
 
+import com.developer.portfolio.config.ApplicationProperties;
 import com.developer.portfolio.domain.Portfolio;
+import com.developer.portfolio.repository.KeysetCursor;
 import com.developer.portfolio.repository.PortfolioRepository;
+import com.developer.portfolio.repository.PortfolioSqlHelper;
+import com.developer.portfolio.repository.ReadWriteRoutingConnectionFactory;
+import com.developer.portfolio.service.PortfolioChangeFeed;
+import com.developer.portfolio.service.dto.PortfolioChangeDTO;
 import com.developer.portfolio.web.rest.errors.BadRequestAlertException;
+import com.developer.portfolio.web.rest.errors.ErrorConstants;
+import com.developer.portfolio.web.rest.errors.FieldErrorVM;
+import com.developer.portfolio.web.rest.vm.BulkItemResultVM;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.util.ForwardedHeaderUtils;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link com.developer.portfolio.domain.Portfolio}.
@@ -44,8 +65,27 @@ public class PortfolioResource {
 
     private final PortfolioRepository portfolioRepository;
 
-    public PortfolioResource(PortfolioRepository portfolioRepository) {
+    private final ApplicationProperties applicationProperties;
+
+    private final Validator validator;
+
+    private final PortfolioChangeFeed changeFeed;
+
+    /**
+     * An item of a bulk request, with its position in the request and its validation errors.
+     */
+    private record BulkItem(int index, Portfolio portfolio, List<FieldErrorVM> fieldErrors) {}
+
+    public PortfolioResource(
+        PortfolioRepository portfolioRepository,
+        ApplicationProperties applicationProperties,
+        Validator validator,
+        PortfolioChangeFeed changeFeed
+    ) {
         this.portfolioRepository = portfolioRepository;
+        this.applicationProperties = applicationProperties;
+        this.validator = validator;
+        this.changeFeed = changeFeed;
     }
 
     /**
@@ -63,6 +103,7 @@ public class PortfolioResource {
         }
         return portfolioRepository
             .save(portfolio)
+            .flatMap(result -> publishChange(PortfolioChangeDTO.Type.CREATED, result))
             .map(result -> {
                 try {
                     return ResponseEntity.created(new URI("/api/portfolios/" + result.getId()))
@@ -74,19 +115,168 @@ public class PortfolioResource {
             });
     }
 
+    /**
+     * {@code POST  /portfolios/_bulk} : Create new portfolios, and update existing ones, from a JSON array.
+     *
+     * @param portfolios the portfolios to create (without id) or to update (with their id).
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each portfolio, in order,
+     * or with status {@code 400 (Bad Request)} if there are too many portfolios.
+     */
+    @PostMapping(value = "/_bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<BulkItemResultVM>>> bulkSavePortfolios(@RequestBody List<Portfolio> portfolios) {
+        LOG.debug("REST request to save {} Portfolios in bulk", portfolios.size());
+        return bulkSave(portfolios);
+    }
+
+    /**
+     * {@code POST  /portfolios/_bulk} : Create new portfolios, and update existing ones, from newline delimited JSON - the
+     * request is read up to one portfolio past the maximum before any of them is written.
+     *
+     * @param portfolios the portfolios to create (without id) or to update (with their id).
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each portfolio, in order,
+     * or with status {@code 400 (Bad Request)} if there are too many portfolios.
+     */
+    @PostMapping(value = "/_bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<List<BulkItemResultVM>>> bulkSavePortfolioStream(@RequestBody Flux<Portfolio> portfolios) {
+        LOG.debug("REST request to save a stream of Portfolios in bulk");
+        return portfolios.take(applicationProperties.getBulk().getMaxItems() + 1L).collectList().flatMap(this::bulkSave);
+    }
+
+    /**
+     * Validate the portfolios in parallel, and write the valid ones with batched statements of
+     * {@code application.bulk.batch-size} rows - invalid portfolios are reported, but don't prevent the others from being saved.
+     * Nothing is written if there are more than {@code application.bulk.max-items} portfolios. The batches are not written in a
+     * single transaction: a batch which fails doesn't undo the batches written before it, its portfolios are reported as failed.
+     */
+    private Mono<ResponseEntity<List<BulkItemResultVM>>> bulkSave(List<Portfolio> portfolios) {
+        ApplicationProperties.Bulk bulk = applicationProperties.getBulk();
+        if (portfolios.size() > bulk.getMaxItems()) {
+            throw new BadRequestAlertException("Too many portfolios, the maximum is " + bulk.getMaxItems(), ENTITY_NAME, "bulktoolarge");
+        }
+        return Flux.fromIterable(portfolios)
+            .index()
+            .flatMapSequential(item ->
+                Mono.fromCallable(() -> validate(item.getT1().intValue(), item.getT2())).subscribeOn(Schedulers.parallel())
+            )
+            .buffer(bulk.getBatchSize())
+            .concatMap(this::saveBatch)
+            .collectList()
+            .map(results -> ResponseEntity.ok().body(results));
+    }
+
+    private BulkItem validate(int index, Portfolio portfolio) {
+        List<FieldErrorVM> fieldErrors = validator
+            .validate(portfolio)
+            .stream()
+            .map(violation -> new FieldErrorVM(ENTITY_NAME, violation.getPropertyPath().toString(), violation.getMessage()))
+            .toList();
+        return new BulkItem(index, portfolio, fieldErrors);
+    }
+
+    private Flux<BulkItemResultVM> saveBatch(List<BulkItem> items) {
+        List<BulkItemResultVM> invalid = new ArrayList<>();
+        List<BulkItem> toInsert = new ArrayList<>();
+        List<BulkItem> toUpdate = new ArrayList<>();
+        for (BulkItem item : items) {
+            if (!item.fieldErrors().isEmpty()) {
+                Long id = item.portfolio().getId();
+                invalid.add(new BulkItemResultVM(item.index(), 400, id, ErrorConstants.ERR_VALIDATION, item.fieldErrors()));
+            } else if (item.portfolio().getId() == null) {
+                toInsert.add(item);
+            } else {
+                toUpdate.add(item);
+            }
+        }
+        Mono<List<BulkItemResultVM>> inserted = writeBatch(
+            toInsert,
+            portfolioRepository::insertBatch,
+            HttpStatus.CREATED,
+            PortfolioChangeDTO.Type.CREATED
+        );
+        Mono<List<BulkItemResultVM>> updated = toUpdate.isEmpty()
+            ? Mono.just(List.of())
+            : portfolioRepository
+                .findIdsByIdIn(toUpdate.stream().map(item -> item.portfolio().getId()).toList())
+                .collect(Collectors.toSet())
+                .flatMap(existingIds -> {
+                    Map<Boolean, List<BulkItem>> exists = toUpdate
+                        .stream()
+                        .collect(Collectors.partitioningBy(item -> existingIds.contains(item.portfolio().getId())));
+                    List<BulkItemResultVM> notFound = exists
+                        .get(false)
+                        .stream()
+                        .map(item -> new BulkItemResultVM(item.index(), 404, item.portfolio().getId(), "error.idnotfound", null))
+                        .toList();
+                    return writeBatch(
+                        exists.get(true),
+                        portfolioRepository::updateBatch,
+                        HttpStatus.OK,
+                        PortfolioChangeDTO.Type.UPDATED
+                    ).map(results -> concat(notFound, results));
+                });
+        return inserted
+            .zipWith(updated, (insertResults, updateResults) -> concat(invalid, concat(insertResults, updateResults)))
+            .flatMapIterable(results -> results.stream().sorted(Comparator.comparingInt(BulkItemResultVM::getIndex)).toList());
+    }
+
+    /**
+     * Write the items with a single batched statement - if it fails, the items after the last one written are reported as failed.
+     */
+    private Mono<List<BulkItemResultVM>> writeBatch(
+        List<BulkItem> items,
+        Function<List<Portfolio>, Flux<Portfolio>> write,
+        HttpStatus status,
+        PortfolioChangeDTO.Type change
+    ) {
+        if (items.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        List<BulkItemResultVM> results = new ArrayList<>(items.size());
+        return write
+            .apply(items.stream().map(BulkItem::portfolio).toList())
+            .concatMap(saved -> publishChange(change, saved))
+            .doOnNext(saved -> {
+                int index = items.get(results.size()).index();
+                results.add(new BulkItemResultVM(index, status.value(), saved.getId(), null, null));
+            })
+            .then(Mono.fromSupplier(() -> results))
+            .onErrorResume(e -> {
+                LOG.warn("Could not save a batch of {} Portfolios: {}", items.size(), e.getMessage());
+                for (BulkItem item : items.subList(results.size(), items.size())) {
+                    results.add(new BulkItemResultVM(item.index(), 500, item.portfolio().getId(), "error.http.500", null));
+                }
+                return Mono.just(results);
+            });
+    }
+
+    private static <T> List<T> concat(List<T> first, List<T> second) {
+        List<T> all = new ArrayList<>(first.size() + second.size());
+        all.addAll(first);
+        all.addAll(second);
+        return all;
+    }
+
     /**
      * {@code PUT  /portfolios/:id} : Updates an existing portfolio.
+     * <p>
+     * The portfolio is updated with a single statement, outside of any transaction. With an {@code If-Match} header holding
+     * the {@code ETag} of the portfolio, it is only updated if it was not modified in the meantime - without it, it is updated
+     * whatever its version, and its new {@code ETag} comes back from the same statement.
      *
      * @param id the id of the portfolio to save.
+     * @param ifMatch the {@code ETag} the portfolio must still have, if any.
      * @param portfolio the portfolio to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated portfolio,
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, the {@code ETag} and with body the updated portfolio,
      * or with status {@code 400 (Bad Request)} if the portfolio is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the portfolio doesn't match the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the portfolio couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Mono<ResponseEntity<Portfolio>> updatePortfolio(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @Valid @RequestBody Portfolio portfolio
     ) throws URISyntaxException {
         LOG.debug("REST request to update Portfolio : {}, {}", id, portfolio);
@@ -96,37 +286,71 @@ public class PortfolioResource {
         if (!Objects.equals(id, portfolio.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        Long expectedVersion = expectedVersion(ifMatch);
 
         return portfolioRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
+            .update(portfolio, expectedVersion)
+            .switchIfEmpty(Mono.defer(() -> notUpdated(id, expectedVersion)))
+            .flatMap(result -> publishChange(PortfolioChangeDTO.Type.UPDATED, result))
+            .map(result ->
+                ResponseEntity.ok()
+                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+                    .eTag(result.getVersion().toString())
+                    .body(result)
+            );
+    }
 
-                return portfolioRepository
-                    .save(portfolio)
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(result ->
-                        ResponseEntity.ok()
-                            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
-                            .body(result)
-                    );
-            });
+    /**
+     * Parse an {@code If-Match} header - the {@code ETag} of a portfolio is its version.
+     * @return the expected version, or null if any version matches.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // not issued by this server, so it can't match
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Find out why a portfolio was not updated - only needed when it was not, so the update itself stays a single statement.
+     */
+    private Mono<Portfolio> notUpdated(Long id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        }
+        return portfolioRepository
+            .existsById(id)
+            .flatMap(exists ->
+                Mono.error(
+                    exists
+                        ? new ResponseStatusException(HttpStatus.PRECONDITION_FAILED)
+                        : new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")
+                )
+            );
     }
 
     /**
      * {@code PATCH  /portfolios/:id} : Partial updates given fields of an existing portfolio, field will ignore if it is null
+     * <p>
+     * Only the given fields are written, with a single statement outside of any transaction, and the portfolio is then read back.
      *
      * @param id the id of the portfolio to save.
      * @param portfolio the portfolio to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated portfolio,
-     * or with status {@code 400 (Bad Request)} if the portfolio is not valid,
-     * or with status {@code 404 (Not Found)} if the portfolio is not found,
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, the {@code ETag} and with body the updated portfolio,
+     * or with status {@code 400 (Bad Request)} if the portfolio is not valid or not found,
      * or with status {@code 500 (Internal Server Error)} if the portfolio couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Mono<ResponseEntity<Portfolio>> partialUpdatePortfolio(
         @PathVariable(value = "id", required = false) final Long id,
         @NotNull @RequestBody Portfolio portfolio
@@ -140,83 +364,308 @@ public class PortfolioResource {
         }
 
         return portfolioRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+            .partialUpdate(portfolio)
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .flatMap(result -> publishChange(PortfolioChangeDTO.Type.UPDATED, result))
+            .map(result -> {
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()));
+                if (result.getVersion() != null) {
+                    response.eTag(result.getVersion().toString());
                 }
-
-                Mono<Portfolio> result = portfolioRepository
-                    .findById(portfolio.getId())
-                    .map(existingPortfolio -> {
-                        if (portfolio.getProjectName() != null) {
-                            existingPortfolio.setProjectName(portfolio.getProjectName());
-                        }
-                        if (portfolio.getDescription() != null) {
-                            existingPortfolio.setDescription(portfolio.getDescription());
-                        }
-                        if (portfolio.getImageUrl() != null) {
-                            existingPortfolio.setImageUrl(portfolio.getImageUrl());
-                        }
-                        if (portfolio.getLink() != null) {
-                            existingPortfolio.setLink(portfolio.getLink());
-                        }
-
-                        return existingPortfolio;
-                    })
-                    .flatMap(portfolioRepository::save);
-
-                return result
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(res ->
-                        ResponseEntity.ok()
-                            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
-                            .body(res)
-                    );
+                return response.body(result);
             });
     }
 
+    /**
+     * {@code GET  /portfolios/changes} : get the changes of the portfolios, as server-sent events.
+     * <p>
+     * Each event holds the change, with the portfolio as written unless it was deleted. The changes of a slow client are
+     * dropped, oldest first, rather than buffered without bound.
+     *
+     * @param lastEventId the id of the last event received, to resume after it from the recent changes - sent back by the
+     * browsers when they reconnect.
+     * @return the {@link Flux} of changes, which never completes.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Flux<ServerSentEvent<PortfolioChangeDTO>> getPortfolioChanges(
+        @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        LOG.debug("REST request to follow the changes of Portfolios after : {}", lastEventId);
+        Long after = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                after = Long.valueOf(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                // not issued by this server, only the next changes are sent
+            }
+        }
+        return changeFeed
+            .changes(after)
+            .map(event ->
+                ServerSentEvent.builder(event.change())
+                    .id(String.valueOf(event.id()))
+                    .event(event.change().getType().name().toLowerCase())
+                    .build()
+            );
+    }
+
+    private Mono<Portfolio> publishChange(PortfolioChangeDTO.Type type, Portfolio portfolio) {
+        return changeFeed.publish(new PortfolioChangeDTO(type, portfolio.getId(), portfolio)).thenReturn(portfolio);
+    }
+
     /**
      * {@code GET  /portfolios} : get all the portfolios.
+     * <p>
+     * When the {@code after} parameter is present (even empty, for the first page), keyset pagination is used: the page is
+     * located with a seek predicate on the sort column and the id, no total count is computed, and the {@code Link} header only
+     * holds the {@code next} page with its cursor. Otherwise, the classic offset pagination is used.
      *
      * @param pageable the pagination information.
      * @param request a {@link ServerHttpRequest} request.
-     * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
+     * @param eagerload flag to load the owners of the portfolios, with a single query per page - they are left out otherwise.
+     * @param after the opaque cursor returned by the previous keyset page, or empty for the first one.
+     * @param count flag to compute the total count - when disabled, {@code X-Total-Count} is omitted and the {@code Link} header only holds the {@code next} page.
+     * @param fields comma separated properties to return, only their columns are selected - all of them if absent.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of portfolios in body.
      */
     @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Transactional(readOnly = true)
     public Mono<ResponseEntity<List<Portfolio>>> getAllPortfolios(
         @org.springdoc.core.annotations.ParameterObject Pageable pageable,
         ServerHttpRequest request,
-        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload
+        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload,
+        @RequestParam(name = "after", required = false) String after,
+        @RequestParam(name = "count", required = false, defaultValue = "true") boolean count,
+        @RequestParam(name = "fields", required = false) String fields
     ) {
+        Set<String> selectedFields = parseFields(fields);
+        if (after != null) {
+            return getAllPortfoliosAfter(pageable, request, after, eagerload, selectedFields);
+        }
+        if (!count) {
+            LOG.debug("REST request to get a page of Portfolios without total count");
+            return portfolioRepository
+                .findAllBy(pageable, selectedFields)
+                .collectList()
+                .flatMap(portfolios -> fetchUsers(portfolios, eagerload, selectedFields))
+                .map(portfolios ->
+                    ResponseEntity.ok()
+                        .headers(generateNextLinkHeader(request, pageable, portfolios, "page", pageable.getPageNumber() + 1))
+                        .body(selectFields(portfolios, selectedFields))
+                );
+        }
         LOG.debug("REST request to get a page of Portfolios");
         return portfolioRepository
-            .count()
-            .zipWith(portfolioRepository.findAllBy(pageable).collectList())
-            .map(countWithEntities ->
+            .findPageBy(pageable, selectedFields)
+            .flatMap(page -> fetchUsers(page.getContent(), eagerload, selectedFields).thenReturn(page))
+            .map(page ->
                 ResponseEntity.ok()
                     .headers(
                         PaginationUtil.generatePaginationHttpHeaders(
                             ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders()),
-                            new PageImpl<>(countWithEntities.getT2(), pageable, countWithEntities.getT1())
+                            page
                         )
                     )
-                    .body(countWithEntities.getT2())
+                    .body(selectFields(page.getContent(), selectedFields))
             );
     }
 
+    /**
+     * {@code GET  /portfolios} : get all the portfolios as a stream, as newline delimited JSON or server-sent events.
+     * <p>
+     * The portfolios are written as they are read, with a bounded prefetch, so that exporting the whole table uses constant
+     * memory. No transaction is held while the client reads, so the owners are loaded with their own queries - all of them
+     * on a replica, when there are any.
+     *
+     * @param sort the order of the portfolios, by id if absent.
+     * @param eagerload flag to load the owners of the portfolios, with a single query per chunk - they are left out otherwise.
+     * @param fields comma separated properties to return, only their columns are selected - all of them if absent.
+     * @return the {@link Flux} of portfolios.
+     */
+    @GetMapping(value = "", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Flux<Portfolio> getAllPortfoliosAsStream(
+        Sort sort,
+        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload,
+        @RequestParam(name = "fields", required = false) String fields
+    ) {
+        LOG.debug("REST request to stream all Portfolios");
+        Set<String> selectedFields = parseFields(fields);
+        if (sort.stream().anyMatch(order -> !PortfolioSqlHelper.KEYSET_COLUMNS.containsKey(order.getProperty()))) {
+            throw new BadRequestAlertException("Unsupported sort for streaming", ENTITY_NAME, "sortinvalid");
+        }
+        ApplicationProperties.Stream streamProperties = applicationProperties.getStream();
+        Flux<Portfolio> portfolios = portfolioRepository
+            .streamAllBy(sort.isSorted() ? sort : Sort.by("id"), selectedFields, streamProperties.getFetchSize())
+            .limitRate(streamProperties.getPrefetch());
+        if (eagerload && (selectedFields == null || selectedFields.contains("user"))) {
+            portfolios = portfolios
+                .buffer(streamProperties.getPrefetch())
+                .concatMap(portfolioRepository::fetchUsers, 0)
+                .flatMapIterable(Function.identity());
+        }
+        if (selectedFields != null) {
+            portfolios = portfolios.map(portfolio -> selectFields(portfolio, selectedFields));
+        }
+        return portfolios.contextWrite(ReadWriteRoutingConnectionFactory.readOnly());
+    }
+
+    /**
+     * Load the owners of the portfolios of a page, unless they are not wanted.
+     */
+    private Mono<List<Portfolio>> fetchUsers(List<Portfolio> portfolios, boolean eagerload, Set<String> fields) {
+        boolean wanted = eagerload && (fields == null || fields.contains("user"));
+        return wanted ? portfolioRepository.fetchUsers(portfolios) : Mono.just(portfolios);
+    }
+
+    /**
+     * Parse the {@code fields} parameter, a comma separated list of {@link PortfolioSqlHelper#FIELDS}.
+     * @return the requested fields, or null for all of them.
+     */
+    private static Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> parsed = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            if (!PortfolioSqlHelper.FIELDS.contains(field.trim())) {
+                throw new BadRequestAlertException("Unknown field: " + field.trim(), ENTITY_NAME, "fieldsinvalid");
+            }
+            parsed.add(field.trim());
+        }
+        return parsed;
+    }
+
+    /**
+     * Keep only the requested fields and the id - the others are null, so they are not serialized.
+     */
+    private static List<Portfolio> selectFields(List<Portfolio> portfolios, Set<String> fields) {
+        return fields == null ? portfolios : portfolios.stream().map(portfolio -> selectFields(portfolio, fields)).toList();
+    }
+
+    private static Portfolio selectFields(Portfolio source, Set<String> fields) {
+        Portfolio portfolio = new Portfolio().id(source.getId()).version(source.getVersion());
+        if (fields.contains("projectName")) {
+            portfolio.setProjectName(source.getProjectName());
+        }
+        if (fields.contains("description")) {
+            portfolio.setDescription(source.getDescription());
+        }
+        if (fields.contains("imageUrl")) {
+            portfolio.setImageUrl(source.getImageUrl());
+        }
+        if (fields.contains("link")) {
+            portfolio.setLink(source.getLink());
+        }
+        if (fields.contains("user")) {
+            portfolio.setUserId(source.getUserId());
+            if (source.getUser() != null) {
+                portfolio.setUser(source.getUser());
+            }
+        }
+        return portfolio;
+    }
+
+    private Mono<ResponseEntity<List<Portfolio>>> getAllPortfoliosAfter(
+        Pageable pageable,
+        ServerHttpRequest request,
+        String after,
+        boolean eagerload,
+        Set<String> fields
+    ) {
+        LOG.debug("REST request to get a keyset page of Portfolios after : {}", after);
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc("id"));
+        if (!PortfolioSqlHelper.KEYSET_COLUMNS.containsKey(order.getProperty())) {
+            throw new BadRequestAlertException("Unsupported sort for keyset pagination", ENTITY_NAME, "sortinvalid");
+        }
+        KeysetCursor cursor = null;
+        if (!after.isEmpty()) {
+            try {
+                cursor = KeysetCursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+            }
+            if (!cursor.getProperty().equals(order.getProperty()) || cursor.getDirection() != order.getDirection()) {
+                throw new BadRequestAlertException("Cursor does not match the requested sort", ENTITY_NAME, "cursorinvalid");
+            }
+        }
+        return portfolioRepository
+            .findAllBy(pageable, cursor, fields)
+            .collectList()
+            .flatMap(portfolios -> fetchUsers(portfolios, eagerload, fields))
+            .map(portfolios -> {
+                Object next = portfolios.isEmpty() ? null : keysetCursorOf(portfolios.get(portfolios.size() - 1), order).encode();
+                return ResponseEntity.ok()
+                    .headers(generateNextLinkHeader(request, pageable, portfolios, "after", next))
+                    .body(selectFields(portfolios, fields));
+            });
+    }
+
+    /**
+     * Generate a {@code Link} header holding only the {@code next} page, when the current page is full - used when the total count is not known.
+     */
+    private static HttpHeaders generateNextLinkHeader(
+        ServerHttpRequest request,
+        Pageable pageable,
+        List<Portfolio> portfolios,
+        String parameter,
+        Object value
+    ) {
+        HttpHeaders headers = new HttpHeaders();
+        if (portfolios.size() == pageable.getPageSize()) {
+            String next = ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders())
+                .replaceQueryParam("page")
+                .replaceQueryParam(parameter, value)
+                .replaceQueryParam("size", pageable.getPageSize())
+                .toUriString()
+                .replace(",", "%2C")
+                .replace(";", "%3B");
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+
+    private static KeysetCursor keysetCursorOf(Portfolio portfolio, Sort.Order order) {
+        String value =
+            switch (order.getProperty()) {
+                case "projectName" -> portfolio.getProjectName();
+                case "description" -> portfolio.getDescription();
+                case "imageUrl" -> portfolio.getImageUrl();
+                case "link" -> portfolio.getLink();
+                default -> null;
+            };
+        return new KeysetCursor(order.getProperty(), order.getDirection(), portfolio.getId(), value);
+    }
+
     /**
      * {@code GET  /portfolios/:id} : get the "id" portfolio.
      *
      * @param id the id of the portfolio to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the portfolio, or with status {@code 404 (Not Found)}.
+     * @param fields comma separated properties to return - all of them if absent. The portfolio is served from the cache, so
+     * only the response is reduced.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, the {@code ETag} and with body the portfolio,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<Portfolio>> getPortfolio(@PathVariable("id") Long id) {
+    @Transactional(readOnly = true)
+    public Mono<ResponseEntity<Portfolio>> getPortfolio(
+        @PathVariable("id") Long id,
+        @RequestParam(name = "fields", required = false) String fields
+    ) {
         LOG.debug("REST request to get Portfolio : {}", id);
-        Mono<Portfolio> portfolio = portfolioRepository.findOneWithEagerRelationships(id);
-        return ResponseUtil.wrapOrNotFound(portfolio);
+        Set<String> selectedFields = parseFields(fields);
+        return portfolioRepository
+            .findOneWithEagerRelationships(id)
+            .map(portfolio -> {
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                if (portfolio.getVersion() != null) {
+                    response.eTag(portfolio.getVersion().toString());
+                }
+                return response.body(selectedFields != null ? selectFields(portfolio, selectedFields) : portfolio);
+            })
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)));
     }
 
     /**
@@ -229,7 +678,10 @@ public class PortfolioResource {
     public Mono<ResponseEntity<Void>> deletePortfolio(@PathVariable("id") Long id) {
         LOG.debug("REST request to delete Portfolio : {}", id);
         return portfolioRepository
-            .deleteById(id)
+            .deleteByIdIfExists(id)
+            // deleting an unknown portfolio still succeeds, but is no change
+            .filter(Boolean::booleanValue)
+            .flatMap(deleted -> changeFeed.publish(new PortfolioChangeDTO(PortfolioChangeDTO.Type.DELETED, id, null)))
             .then(
                 Mono.just(
                     ResponseEntity.noContent()
@@ -0,0 +1,70 @@
+package com.developer.portfolio.web.rest.vm;
+
+import com.developer.portfolio.web.rest.errors.FieldErrorVM;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * View Model holding the outcome of one item of a bulk request.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResultVM implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int index;
+
+    private final int status;
+
+    private final Long id;
+
+    private final String message;
+
+    private final List<FieldErrorVM> fieldErrors;
+
+    public BulkItemResultVM(int index, int status, Long id, String message, List<FieldErrorVM> fieldErrors) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.message = message;
+        this.fieldErrors = fieldErrors;
+    }
+
+    /**
+     * @return the position of the item in the request.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the HTTP status the item would have had as a single request.
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public List<FieldErrorVM> getFieldErrors() {
+        return fieldErrors;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BulkItemResultVM{" +
+            "index=" + index +
+            ", status=" + status +
+            ", id=" + id +
+            ", message='" + message + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Rest layer visual models.
+ */
+package com.developer.portfolio.web.rest.vm;
@@ -18,6 +18,13 @@ public class SqlTestContainersSpringContextCustomizerFactory implements ContextC
 
     private static SqlTestContainer prodTestContainer;
 
+    /**
+     * @return the database container, once started for the context of a first integration test.
+     */
+    public static SqlTestContainer getTestContainer() {
+        return prodTestContainer;
+    }
+
     @Override
     public ContextCustomizer createContextCustomizer(Class<?> testClass, List<ContextConfigurationAttributes> configAttributes) {
         return new ContextCustomizer() {
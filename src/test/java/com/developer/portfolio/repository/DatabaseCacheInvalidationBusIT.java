@@ -0,0 +1,116 @@
+package com.developer.portfolio.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.developer.portfolio.IntegrationTest;
+import com.developer.portfolio.config.ApplicationProperties;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Integration tests for {@link DatabaseCacheInvalidationBus}, with two buses sharing the database as two nodes would.
+ */
+@IntegrationTest
+class DatabaseCacheInvalidationBusIT {
+
+    private static final String CACHE_NAME = "testCache";
+
+    @Autowired
+    private DatabaseClient db;
+
+    @Autowired
+    private ReactiveTransactionManager transactionManager;
+
+    private DatabaseCacheInvalidationBus node1;
+
+    private DatabaseCacheInvalidationBus node2;
+
+    private final List<String> evictedOnNode2 = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void init() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getCache().getInvalidation().setBatchSize(2);
+        node1 = new DatabaseCacheInvalidationBus(db, properties);
+        node2 = new DatabaseCacheInvalidationBus(db, properties);
+        node2.subscribe(CACHE_NAME, evictedOnNode2::add);
+        // the first poll only records the current position in the change-log
+        node1.poll().block();
+        node2.poll().block();
+    }
+
+    @Test
+    void assertThatInvalidationsArePropagatedInBatches() {
+        node1.publish(CACHE_NAME, "1").block();
+        node1.publish(CACHE_NAME, "2").block();
+        node1.publish(CACHE_NAME, CacheInvalidationBus.ALL_KEYS).block();
+        node1.publish("otherCache", "4").block();
+
+        node2.poll().block();
+
+        assertThat(evictedOnNode2).containsExactly("1", "2", CacheInvalidationBus.ALL_KEYS);
+    }
+
+    @Test
+    void assertThatInvalidationsAreOnlyAppliedOnce() {
+        node1.publish(CACHE_NAME, "1").block();
+
+        node2.poll().block();
+        node2.poll().block();
+
+        assertThat(evictedOnNode2).containsExactly("1");
+    }
+
+    @Test
+    void assertThatRemoteListenersSkipTheLocalInvalidations() {
+        List<String> evictedOnNode1 = new CopyOnWriteArrayList<>();
+        node1.subscribeRemote(CACHE_NAME, evictedOnNode1::add);
+
+        node1.publish(CACHE_NAME, "1").block();
+        node2.publish(CACHE_NAME, "2").block();
+        node1.poll().block();
+        node2.poll().block();
+
+        assertThat(evictedOnNode1).containsExactly("2");
+        assertThat(evictedOnNode2).containsExactly("1", "2");
+    }
+
+    @Test
+    void assertThatInvalidationsArePublishedOnceTheTransactionCommits() {
+        TransactionalOperator transactionalOperator = TransactionalOperator.create(transactionManager);
+
+        transactionalOperator
+            .execute(status ->
+                node1
+                    .publish(CACHE_NAME, "1")
+                    // not visible to the other nodes before the commit
+                    .then(node2.poll())
+            )
+            .blockLast();
+        assertThat(evictedOnNode2).isEmpty();
+
+        node2.poll().block();
+        assertThat(evictedOnNode2).containsExactly("1");
+    }
+
+    @Test
+    void assertThatInvalidationsAreNotPublishedOnRollback() {
+        TransactionalOperator transactionalOperator = TransactionalOperator.create(transactionManager);
+
+        transactionalOperator
+            .execute(status -> {
+                status.setRollbackOnly();
+                return node1.publish(CACHE_NAME, "1");
+            })
+            .blockLast();
+
+        node2.poll().block();
+        assertThat(evictedOnNode2).isEmpty();
+    }
+}
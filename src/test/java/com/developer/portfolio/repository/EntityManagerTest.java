@@ -0,0 +1,119 @@
+package com.developer.portfolio.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.query.UpdateMapper;
+import org.springframework.data.relational.core.sql.Column;
+import org.springframework.data.relational.core.sql.Conditions;
+import org.springframework.data.relational.core.sql.SQL;
+import org.springframework.data.relational.core.sql.Select;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
+import org.springframework.data.relational.core.sql.Table;
+import org.springframework.data.relational.core.sql.render.SqlRenderer;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.r2dbc.core.FetchSpec;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the rendered select cache and the link tables of {@link EntityManager}.
+ */
+class EntityManagerTest {
+
+    private static final Table table = Table.aliased("portfolio", EntityManager.ENTITY_ALIAS);
+
+    private SimpleMeterRegistry meterRegistry;
+    private EntityManager entityManager;
+    private AtomicInteger builds;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        entityManager = new EntityManager(
+            SqlRenderer.create(),
+            mock(UpdateMapper.class),
+            mock(R2dbcEntityTemplate.class, RETURNS_DEEP_STUBS),
+            meterRegistry
+        );
+        builds = new AtomicInteger();
+    }
+
+    private SelectFromAndJoin selectFrom() {
+        builds.incrementAndGet();
+        return Select.builder().select(Column.aliased("id", table, "e_id")).from(table);
+    }
+
+    @Test
+    void testSelectIsRenderedOncePerShape() {
+        String first = entityManager.createSelect("test", Object.class, PageRequest.of(0, 20), null, this::selectFrom, null);
+        String second = entityManager.createSelect("test", Object.class, PageRequest.of(5, 50), null, this::selectFrom, null);
+
+        assertThat(first).isEqualTo("SELECT e.id AS e_id FROM portfolio e LIMIT :page_limit OFFSET :page_offset");
+        assertThat(second).isSameAs(first);
+        assertThat(builds.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testWhereShapeIsPartOfTheKey() {
+        String unpaged = entityManager.createSelect("test", Object.class, null, null, this::selectFrom, null);
+        String byId = entityManager.createSelect(
+            "test",
+            Object.class,
+            null,
+            "id",
+            this::selectFrom,
+            () -> Conditions.isEqual(table.column("id"), SQL.bindMarker(":id"))
+        );
+
+        assertThat(unpaged).isEqualTo("SELECT e.id AS e_id FROM portfolio e");
+        assertThat(byId).isEqualTo("SELECT e.id AS e_id FROM portfolio e WHERE e.id = :id");
+        assertThat(builds.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testLinkTableIsUpdatedWithoutBeingRead() {
+        R2dbcEntityTemplate template = mock(R2dbcEntityTemplate.class, RETURNS_DEEP_STUBS);
+        DatabaseClient db = mock(DatabaseClient.class);
+        GenericExecuteSpec spec = mock(GenericExecuteSpec.class);
+        FetchSpec<Map<String, Object>> fetch = mock();
+        when(template.getDatabaseClient()).thenReturn(db);
+        when(db.sql(anyString())).thenReturn(spec);
+        when(spec.bind(anyString(), any())).thenReturn(spec);
+        when(spec.fetch()).thenReturn(fetch);
+        when(fetch.rowsUpdated()).thenReturn(Mono.just(1L));
+        EntityManager.LinkTable table = new EntityManager.LinkTable("link", "owner_id", "target_id");
+        entityManager = new EntityManager(SqlRenderer.create(), mock(UpdateMapper.class), template, meterRegistry);
+
+        Long rows = entityManager.updateLinkTable(table, 7L, Stream.of(1L, 2L, 1L)).block();
+
+        assertThat(rows).isEqualTo(2L);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(db, times(2)).sql(sql.capture());
+        assertThat(sql.getAllValues()).containsExactly(
+            "DELETE FROM link WHERE owner_id = :id AND target_id NOT IN (:referenced)",
+            "INSERT INTO link (owner_id, target_id) VALUES :rows ON DUPLICATE KEY UPDATE target_id = target_id"
+        );
+        // the ids are bound with their own type
+        verify(spec).bind("referenced", List.of(1L, 2L));
+        verify(spec).bind("id", 7L);
+    }
+}
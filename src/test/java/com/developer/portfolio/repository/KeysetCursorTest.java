@@ -0,0 +1,38 @@
+package com.developer.portfolio.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Test class for the {@link KeysetCursor} utility class.
+ */
+class KeysetCursorTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        KeysetCursor cursor = new KeysetCursor("projectName", Sort.Direction.DESC, 42L, "name:with:separators");
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).doesNotContain("=", "+", "/");
+        assertThat(KeysetCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @Test
+    void testEncodeDecodeWithoutValue() {
+        KeysetCursor cursor = new KeysetCursor("id", Sort.Direction.ASC, 7L, null);
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void testDecodeMalformedCursor() {
+        assertThatIllegalArgumentException().isThrownBy(() -> KeysetCursor.decode("not a cursor!"));
+        assertThatIllegalArgumentException().isThrownBy(() -> KeysetCursor.decode("Zm9v"));
+        String truncated = new KeysetCursor("id", Sort.Direction.ASC, 1L, null).encode().substring(2);
+        assertThatIllegalArgumentException().isThrownBy(() -> KeysetCursor.decode(truncated));
+    }
+}
@@ -0,0 +1,185 @@
+package com.developer.portfolio.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.developer.portfolio.IntegrationTest;
+import com.developer.portfolio.config.SqlTestContainersSpringContextCustomizerFactory;
+import com.developer.portfolio.domain.Portfolio;
+import com.developer.portfolio.service.UserService;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.testcontainers.containers.JdbcDatabaseContainer;
+
+/**
+ * Integration tests for the {@link ReadWriteRoutingConnectionFactory}, with a second schema of the test database as replica.
+ * <p>
+ * The replica schema holds empty copies of the tables, so a read tells which database it went to by what it finds.
+ */
+@IntegrationTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReadWriteRoutingConnectionFactoryIT {
+
+    private static final String REPLICA_SCHEMA = "portfolio_replica";
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    @Autowired
+    private ReactiveTransactionManager transactionManager;
+
+    @Autowired
+    private DatabaseClient db;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        // the replica schema is only writable by root, whose password is the one of the test user
+        registry.add("application.replicas.urls[0]", () -> {
+            JdbcDatabaseContainer<?> container = container();
+            return (
+                "r2dbc:mysql://" +
+                container.getHost() +
+                ":" +
+                container.getFirstMappedPort() +
+                "/" +
+                REPLICA_SCHEMA +
+                "?useSSL=false&createDatabaseIfNotExist=true"
+            );
+        });
+        registry.add("application.replicas.username", () -> "root");
+        registry.add("application.replicas.password", () -> container().getPassword());
+    }
+
+    private static JdbcDatabaseContainer<?> container() {
+        return SqlTestContainersSpringContextCustomizerFactory.getTestContainer().getTestContainer();
+    }
+
+    private static Connection rootConnection() throws SQLException {
+        JdbcDatabaseContainer<?> container = container();
+        return DriverManager.getConnection(container.getJdbcUrl(), "root", container.getPassword());
+    }
+
+    @BeforeEach
+    void createReplicaTables() throws SQLException {
+        try (Connection connection = rootConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE IF NOT EXISTS " + REPLICA_SCHEMA);
+            for (String table : new String[] { "jhi_user", "portfolio" }) {
+                statement.execute("CREATE TABLE IF NOT EXISTS " + REPLICA_SCHEMA + "." + table + " LIKE " + table);
+                statement.execute("DELETE FROM " + REPLICA_SCHEMA + "." + table);
+            }
+        }
+    }
+
+    @Test
+    @Order(1)
+    void readOnlyTransactionsReadFromTheReplica() {
+        assertThat(primaryCount("jhi_user")).isPositive();
+
+        assertThat(userService.countManagedUsers().block()).isZero();
+    }
+
+    @Test
+    @Order(2)
+    void writesGoToThePrimary() throws SQLException {
+        Portfolio portfolio = new Portfolio().projectName("primary").description("primary").imageUrl("primary").link("primary");
+
+        Portfolio saved = TransactionalOperator.create(transactionManager).transactional(portfolioRepository.save(portfolio)).block();
+
+        assertThat(saved).isNotNull();
+        assertThat(count("SELECT COUNT(*) FROM portfolio WHERE id = " + saved.getId())).isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM " + REPLICA_SCHEMA + ".portfolio")).isZero();
+        portfolioRepository.deleteById(saved.getId()).block();
+    }
+
+    @Test
+    @Order(3)
+    void readsOfAWriterGoToThePrimary() {
+        TestingAuthenticationToken writer = new TestingAuthenticationToken("routing-writer", null);
+        TestingAuthenticationToken reader = new TestingAuthenticationToken("routing-reader", null);
+
+        // a write outside of any transaction makes its user a writer for a while
+        db
+            .sql("UPDATE jhi_user SET last_modified_by = last_modified_by WHERE login = 'admin'")
+            .then()
+            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(writer))
+            .block();
+        Long countOfWriter = userService
+            .countManagedUsers()
+            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(writer))
+            .block();
+        Long countOfReader = userService
+            .countManagedUsers()
+            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(reader))
+            .block();
+
+        assertThat(countOfWriter).isEqualTo(primaryCount("jhi_user"));
+        assertThat(countOfReader).isZero();
+    }
+
+    @Test
+    @Order(4)
+    void replicaPoolsAreDisposedOnShutdown() {
+        ReadWriteRoutingConnectionFactory routing = routing(connectionFactory);
+        assertThat(routing.getReplicas()).hasSize(1).allMatch(ConnectionPool.class::isInstance);
+
+        context.close();
+
+        assertThat(routing.isDisposed()).isTrue();
+        assertThat(routing.getReplicas()).allMatch(replica -> ((ConnectionPool) replica).isDisposed());
+        assertThat(((ConnectionPool) routing.unwrap()).isDisposed()).isTrue();
+    }
+
+    private static ReadWriteRoutingConnectionFactory routing(Object connectionFactory) {
+        Object current = connectionFactory;
+        while (!(current instanceof ReadWriteRoutingConnectionFactory) && current instanceof Wrapped<?> wrapped) {
+            current = wrapped.unwrap();
+        }
+        assertThat(current).isInstanceOf(ReadWriteRoutingConnectionFactory.class);
+        return (ReadWriteRoutingConnectionFactory) current;
+    }
+
+    private long primaryCount(String table) {
+        return db.sql("SELECT COUNT(*) AS total FROM " + table).map(row -> row.get("total", Long.class)).one().block();
+    }
+
+    private static long count(String sql) throws SQLException {
+        try (
+            Connection connection = rootConnection();
+            Statement statement = connection.createStatement();
+            ResultSet rows = statement.executeQuery(sql)
+        ) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+}
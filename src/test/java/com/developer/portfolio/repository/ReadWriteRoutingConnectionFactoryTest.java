@@ -0,0 +1,134 @@
+package com.developer.portfolio.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+class ReadWriteRoutingConnectionFactoryTest {
+
+    private static final Duration HEALTH_CHECK_INTERVAL = Duration.ofHours(1);
+
+    private final Connection primaryConnection = mock(Connection.class);
+
+    private final Connection replicaConnection = mock(Connection.class);
+
+    private ConnectionFactory replica;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ReadWriteRoutingConnectionFactory routing;
+
+    @BeforeEach
+    void setup() {
+        ConnectionFactory primary = mock(ConnectionFactory.class);
+        when(primary.create()).thenAnswer(invocation -> Mono.just(primaryConnection));
+        replica = mock(ConnectionFactory.class);
+        when(replica.create()).thenAnswer(invocation -> Mono.just(replicaConnection));
+        meterRegistry = new SimpleMeterRegistry();
+        routing = new ReadWriteRoutingConnectionFactory(
+            primary,
+            List.of(replica),
+            Duration.ofMinutes(1),
+            HEALTH_CHECK_INTERVAL,
+            meterRegistry
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        routing.dispose();
+    }
+
+    @Test
+    void shouldSendTheReadsToTheReplica() {
+        assertThat(connection(ReadWriteRoutingConnectionFactory.readOnly().apply(Context.empty()))).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void shouldSendEverythingElseToThePrimary() {
+        assertThat(connection(Context.empty())).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void shouldSendTheReadsOfARecentWriterToThePrimary() {
+        Context writer = user("writer");
+        Context reader = user("reader");
+
+        Connection connection = connection(writer);
+        assertThat(target(connection)).isSameAs(primaryConnection);
+        connection.createStatement("UPDATE portfolio SET version = version + 1 WHERE id = ?");
+
+        assertThat(connection(ReadWriteRoutingConnectionFactory.readOnly().apply(writer))).isSameAs(primaryConnection);
+        assertThat(connection(ReadWriteRoutingConnectionFactory.readOnly().apply(reader))).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void shouldNotTakeAReadOfThePrimaryForAWrite() {
+        Context user = user("user");
+
+        Connection connection = connection(user);
+        assertThat(target(connection)).isSameAs(primaryConnection);
+        connection.createStatement("  select e.id FROM portfolio e WHERE e.id = ?");
+
+        assertThat(connection(ReadWriteRoutingConnectionFactory.readOnly().apply(user))).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void shouldTakeTheWritesOfATransactionOnceItIsCommitted() {
+        when(primaryConnection.beginTransaction()).thenReturn(Mono.empty());
+        when(primaryConnection.commitTransaction()).thenReturn(Mono.empty());
+        when(primaryConnection.rollbackTransaction()).thenReturn(Mono.empty());
+        Context user = user("user");
+        Context readOnly = ReadWriteRoutingConnectionFactory.readOnly().apply(user);
+
+        Connection connection = connection(user);
+        Mono.from(connection.beginTransaction()).block();
+        connection.createStatement("DELETE FROM portfolio WHERE id = ?");
+        Mono.from(connection.rollbackTransaction()).block();
+        assertThat(connection(readOnly)).isSameAs(replicaConnection);
+
+        Mono.from(connection.beginTransaction()).block();
+        connection.createStatement("DELETE FROM portfolio WHERE id = ?");
+        assertThat(connection(readOnly)).isSameAs(replicaConnection);
+        Mono.from(connection.commitTransaction()).block();
+        assertThat(connection(readOnly)).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void shouldLeaveAFailingReplicaOut() {
+        when(replica.create()).thenAnswer(invocation -> Mono.error(new IllegalStateException("Replica down")));
+        Context readOnly = ReadWriteRoutingConnectionFactory.readOnly().apply(Context.empty());
+
+        assertThat(connection(readOnly)).isSameAs(primaryConnection);
+        assertThat(meterRegistry.get("r2dbc.replica.healthy").gauge().value()).isZero();
+
+        when(replica.create()).thenAnswer(invocation -> Mono.just(replicaConnection));
+        assertThat(connection(readOnly)).isSameAs(primaryConnection);
+    }
+
+    private Connection connection(Context context) {
+        return Mono.from(routing.create()).contextWrite(context).block();
+    }
+
+    private static Connection target(Connection connection) {
+        return connection instanceof Wrapped<?> wrapped ? (Connection) wrapped.unwrap() : connection;
+    }
+
+    private static Context user(String name) {
+        return ReactiveSecurityContextHolder.withAuthentication(new UsernamePasswordAuthenticationToken(name, name));
+    }
+}
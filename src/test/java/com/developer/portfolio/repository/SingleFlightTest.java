@@ -0,0 +1,91 @@
+package com.developer.portfolio.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private SingleFlight<String, AtomicReference<String>> singleFlight;
+
+    private AtomicInteger queries;
+
+    private Sinks.One<AtomicReference<String>> result;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("test", meterRegistry, value -> new AtomicReference<>(value.get()));
+        queries = new AtomicInteger();
+        result = Sinks.one();
+    }
+
+    private Mono<AtomicReference<String>> query(String key) {
+        queries.incrementAndGet();
+        return result.asMono();
+    }
+
+    @Test
+    void shouldShareTheLoadInFlight() {
+        Mono<AtomicReference<String>> first = singleFlight.load("key", this::query).cache();
+        Mono<AtomicReference<String>> second = singleFlight.load("key", this::query).cache();
+        first.subscribe();
+        second.subscribe();
+
+        result.tryEmitValue(new AtomicReference<>("value"));
+
+        AtomicReference<String> firstValue = first.block(Duration.ofSeconds(1));
+        AtomicReference<String> secondValue = second.block(Duration.ofSeconds(1));
+        assertThat(firstValue.get()).isEqualTo("value");
+        assertThat(secondValue.get()).isEqualTo("value");
+        assertThat(firstValue).isNotSameAs(secondValue);
+        assertThat(queries.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("singleflight.loads").tag("name", "test").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("singleflight.coalesced").tag("name", "test").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldLoadAgainOnceTheLoadCompleted() {
+        result.tryEmitValue(new AtomicReference<>("value"));
+
+        assertThat(singleFlight.load("key", this::query).block(Duration.ofSeconds(1))).hasValue("value");
+        assertThat(singleFlight.load("key", this::query).block(Duration.ofSeconds(1))).hasValue("value");
+
+        assertThat(queries.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotShareTheLoadsOfOtherKeys() {
+        singleFlight.load("key", this::query).subscribe();
+        singleFlight.load("other", this::query).subscribe();
+
+        assertThat(queries.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldShareEmptyResultsAndErrors() {
+        Sinks.One<AtomicReference<String>> empty = Sinks.one();
+        Mono<AtomicReference<String>> first = singleFlight.load("empty", key -> empty.asMono()).cache();
+        Mono<AtomicReference<String>> second = singleFlight.load("empty", key -> empty.asMono()).cache();
+        first.subscribe();
+        second.subscribe();
+        empty.tryEmitEmpty();
+        assertThat(first.blockOptional(Duration.ofSeconds(1))).isEmpty();
+        assertThat(second.blockOptional(Duration.ofSeconds(1))).isEmpty();
+
+        result.tryEmitError(new IllegalStateException("failed"));
+        assertThatThrownBy(() -> singleFlight.load("key", this::query).block(Duration.ofSeconds(1))).isInstanceOf(
+            IllegalStateException.class
+        );
+    }
+}
@@ -0,0 +1,192 @@
+package com.developer.portfolio.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.developer.portfolio.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.Wrapped;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BiFunction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class StatementMetricsTest {
+
+    private static final String SELECT = "SELECT e.id FROM portfolio e WHERE e.id = ?";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ApplicationProperties applicationProperties;
+
+    private StatementMetrics statementMetrics;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        applicationProperties = new ApplicationProperties();
+        statementMetrics = new StatementMetrics(meterRegistry, applicationProperties);
+    }
+
+    @Test
+    void shouldNormalizeTheValuesOfTheStatements() {
+        assertThat(StatementMetrics.fingerprint("SELECT *\n  FROM portfolio e WHERE e.id = 42 AND e.link = 'it''s'")).isEqualTo(
+            "SELECT * FROM portfolio e WHERE e.id = ? AND e.link = ?"
+        );
+        assertThat(StatementMetrics.fingerprint("SELECT * FROM portfolio e WHERE e.id IN ($1, $2, $3)")).isEqualTo(
+            "SELECT * FROM portfolio e WHERE e.id IN (?, ...)"
+        );
+        assertThat(StatementMetrics.fingerprint("INSERT INTO portfolio (a, b) VALUES (?, ?), (?, ?), (?, ?)")).isEqualTo(
+            "INSERT INTO portfolio (a, b) VALUES (?, ...), ..."
+        );
+        assertThat(StatementMetrics.fingerprint("SELECT t1.id FROM t1")).isEqualTo("SELECT t1.id FROM t1");
+    }
+
+    @Test
+    void shouldTellApartTheFingerprintsWithTheSameHashCode() {
+        // "Aa" and "BB" have the same String.hashCode()
+        String first = StatementMetrics.fingerprint("SELECT Aa FROM t");
+        String second = StatementMetrics.fingerprint("SELECT BB FROM t");
+        assertThat(first.hashCode()).isEqualTo(second.hashCode());
+
+        String id = StatementMetrics.StatementStats.id(first);
+
+        assertThat(id).hasSize(16).isNotEqualTo(StatementMetrics.StatementStats.id(second));
+    }
+
+    @Test
+    void shouldMeasureTheStatementsByFingerprint() {
+        Result result = mock(Result.class);
+        when(result.map(any(BiFunction.class))).thenReturn(Flux.just(1L, 2L));
+        ConnectionFactory connectionFactory = statementMetrics.instrument(connectionFactory(result));
+
+        for (long id : List.of(1L, 2L)) {
+            Mono.from(connectionFactory.create())
+                .flatMapMany(connection -> connection.createStatement(SELECT.replace("?", Long.toString(id))).bind(0, id).execute())
+                .flatMap(executed -> executed.map((row, metadata) -> row))
+                .blockLast(Duration.ofSeconds(1));
+        }
+
+        StatementMetrics.Summary summary = statementMetrics.getSlowest().get(0);
+        assertThat(summary.statement()).isEqualTo(SELECT);
+        assertThat(summary.count()).isEqualTo(2);
+        assertThat(summary.rowsReturned()).isEqualTo(4);
+        assertThat(summary.slowCount()).isZero();
+        assertThat(meterRegistry.get("r2dbc.statement").tag("statement", summary.id()).tag("operation", "select").timer().count()).isEqualTo(
+            2
+        );
+        assertThat(meterRegistry.get("r2dbc.statement.rows.returned").tag("statement", summary.id()).summary().totalAmount()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldCountTheSlowStatementsAndTheRowsUpdated() {
+        applicationProperties.getStatements().setSlowThreshold(Duration.ZERO);
+        Result result = mock(Result.class);
+        when(result.getRowsUpdated()).thenReturn(Mono.just(3L));
+        ConnectionFactory connectionFactory = statementMetrics.instrument(connectionFactory(result));
+
+        Long updated = Mono.from(connectionFactory.create())
+            .flatMapMany(connection -> connection.createStatement("UPDATE portfolio SET version = version + 1").execute())
+            .flatMap(Result::getRowsUpdated)
+            .blockLast(Duration.ofSeconds(1));
+
+        assertThat(updated).isEqualTo(3L);
+        StatementMetrics.Summary summary = statementMetrics.getSlowest().get(0);
+        assertThat(summary.statement()).isEqualTo("UPDATE portfolio SET version = version + ?");
+        assertThat(summary.slowCount()).isEqualTo(1);
+        assertThat(summary.rowsUpdated()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldMeasureABatchedStatementAsASingleRun() {
+        Result result = mock(Result.class);
+        when(result.getRowsUpdated()).thenReturn(Mono.just(1L));
+        Statement statement = mock(Statement.class);
+        when(statement.execute()).thenAnswer(invocation -> Flux.just(result, result, result));
+        ConnectionFactory connectionFactory = statementMetrics.instrument(connectionFactory(statement));
+
+        List<Long> updated = Mono.from(connectionFactory.create())
+            .flatMapMany(connection ->
+                connection
+                    .createStatement("UPDATE portfolio SET version = version + 1 WHERE id = ?")
+                    .bind(0, 1L)
+                    .add()
+                    .bind(0, 2L)
+                    .add()
+                    .bind(0, 3L)
+                    .execute()
+            )
+            .flatMap(Result::getRowsUpdated)
+            .collectList()
+            .block(Duration.ofSeconds(1));
+
+        assertThat(updated).containsExactly(1L, 1L, 1L);
+        StatementMetrics.Summary summary = statementMetrics.getSlowest().get(0);
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.rowsUpdated()).isEqualTo(3);
+        assertThat(meterRegistry.get("r2dbc.statement").tag("statement", summary.id()).tag("batch.size", "4").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("r2dbc.statement").tag("batch.size", "1").timer()).isNull();
+    }
+
+    @Test
+    void shouldRoundTheBatchSizesUpToAPowerOfTwo() {
+        assertThat(List.of(1, 2, 3, 4, 5, 50, 64, 500)).map(StatementMetrics.StatementStats::batchBucket).containsExactly(
+            1,
+            2,
+            4,
+            4,
+            8,
+            64,
+            64,
+            512
+        );
+    }
+
+    @Test
+    void shouldMeasureTheAcquisitionOfTheConnections() {
+        ConnectionFactory failing = mock(ConnectionFactory.class);
+        when(failing.create()).thenAnswer(invocation -> Mono.error(new IllegalStateException("no connection")));
+
+        Mono.from(statementMetrics.instrument(connectionFactory(mock(Result.class))).create()).block(Duration.ofSeconds(1));
+        Mono.from(statementMetrics.instrument(failing).create()).onErrorComplete().block(Duration.ofSeconds(1));
+
+        assertThat(meterRegistry.get("r2dbc.pool.acquire").tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("r2dbc.pool.acquire").tag("outcome", "failure").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepTheDelegateReachable() {
+        ConnectionFactory delegate = mock(ConnectionFactory.class);
+        ConnectionFactory instrumented = statementMetrics.instrument(delegate);
+
+        assertThat(instrumented).isInstanceOf(Wrapped.class);
+        assertThat(((Wrapped<?>) instrumented).unwrap()).isSameAs(delegate);
+        assertThat(statementMetrics.instrument(instrumented)).isSameAs(instrumented);
+
+        applicationProperties.getStatements().setEnabled(false);
+        assertThat(statementMetrics.instrument(delegate)).isSameAs(delegate);
+    }
+
+    private static ConnectionFactory connectionFactory(Result result) {
+        Statement statement = mock(Statement.class);
+        when(statement.execute()).thenAnswer(invocation -> Flux.just(result));
+        return connectionFactory(statement);
+    }
+
+    private static ConnectionFactory connectionFactory(Statement statement) {
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement(any())).thenReturn(statement);
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        when(connectionFactory.create()).thenAnswer(invocation -> Mono.just(connection));
+        return connectionFactory;
+    }
+}
@@ -0,0 +1,66 @@
+package com.developer.portfolio.repository.rowmapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import io.r2dbc.spi.Row;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.MySqlDialect;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+
+/**
+ * Test class for the conversion plans of {@link ColumnConverter}.
+ */
+class ColumnConverterTest {
+
+    private ColumnConverter converter;
+
+    @BeforeEach
+    void setup() {
+        R2dbcCustomConversions conversions = R2dbcCustomConversions.of(MySqlDialect.INSTANCE, List.of());
+        converter = new ColumnConverter(conversions, new MappingR2dbcConverter(new R2dbcMappingContext(), conversions));
+    }
+
+    @Test
+    void testDriverPlanIsLearned() {
+        Row row = mock(Row.class);
+        when(row.get("e_link", String.class)).thenReturn("link");
+
+        assertThat(converter.fromRow(row, "e_link", String.class)).isEqualTo("link");
+        assertThat(converter.fromRow(row, "e_link", String.class)).isEqualTo("link");
+
+        assertThat(converter.getPlans()).containsExactly(
+            new ColumnConverter.ColumnPlan("e_link", String.class.getName(), ColumnConverter.Strategy.DRIVER, null, 0)
+        );
+    }
+
+    @Test
+    void testConversionPlanIsLearnedOnce() {
+        Row row = mock(Row.class);
+        when(row.get("e_id", Long.class)).thenThrow(new IllegalArgumentException("unsupported"));
+        when(row.get("e_id")).thenReturn(42);
+
+        assertThat(converter.fromRow(row, "e_id", Long.class)).isEqualTo(42L);
+        assertThat(converter.fromRow(row, "e_id", Long.class)).isEqualTo(42L);
+        assertThat(converter.fromRow(row, "e_id", Long.class)).isEqualTo(42L);
+
+        // the failing driver conversion is only tried on the first read
+        verify(row, times(1)).get("e_id", Long.class);
+        assertThat(converter.getPlans()).containsExactly(
+            new ColumnConverter.ColumnPlan("e_id", Long.class.getName(), ColumnConverter.Strategy.CONVERT, Integer.class.getName(), 3)
+        );
+    }
+
+    @Test
+    void testConvert() {
+        assertThat(converter.convert(null, String.class)).isNull();
+        assertThat(converter.convert("value", String.class)).isEqualTo("value");
+        assertThat(converter.convert(1, Long.class)).isEqualTo(1L);
+        assertThat(converter.convert("ASC", Sort.Direction.class)).isEqualTo(Sort.Direction.ASC);
+    }
+}
@@ -0,0 +1,129 @@
+package com.developer.portfolio.repository.rowmapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.developer.portfolio.domain.Portfolio;
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.MySqlDialect;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+
+/**
+ * Test class for the index based mapping of {@link PortfolioRowMapper}.
+ */
+class PortfolioRowMapperTest {
+
+    private PortfolioRowMapper mapper;
+
+    @BeforeEach
+    void setup() {
+        R2dbcCustomConversions conversions = R2dbcCustomConversions.of(MySqlDialect.INSTANCE, List.of());
+        MappingR2dbcConverter r2dbcConverter = new MappingR2dbcConverter(new R2dbcMappingContext(), conversions);
+        mapper = new PortfolioRowMapper(new ColumnConverter(conversions, r2dbcConverter));
+    }
+
+    private static RowMetadata metadata(Object... namesAndTypes) {
+        List<ColumnMetadata> columns = new ArrayList<>();
+        for (int i = 0; i < namesAndTypes.length; i += 2) {
+            ColumnMetadata column = mock(ColumnMetadata.class);
+            when(column.getName()).thenReturn((String) namesAndTypes[i]);
+            doReturn(namesAndTypes[i + 1]).when(column).getJavaType();
+            columns.add(column);
+        }
+        RowMetadata metadata = mock(RowMetadata.class);
+        doReturn(columns).when(metadata).getColumnMetadatas();
+        return metadata;
+    }
+
+    @Test
+    void testMapsByIndexWithoutColumnNames() {
+        RowMetadata metadata = metadata(
+            "user_id",
+            String.class,
+            "e_id",
+            Long.class,
+            "e_project_name",
+            String.class,
+            "e_description",
+            String.class,
+            "e_image_url",
+            String.class,
+            "e_link",
+            String.class,
+            "e_user_id",
+            String.class,
+            "e_version",
+            Long.class
+        );
+        Row row = mock(Row.class);
+        when(row.get(1, Long.class)).thenReturn(1L);
+        when(row.get(2, String.class)).thenReturn("projectName");
+        when(row.get(3, String.class)).thenReturn("description");
+        when(row.get(4, String.class)).thenReturn("imageUrl");
+        when(row.get(5, String.class)).thenReturn("link");
+        when(row.get(6, String.class)).thenReturn("userId");
+        when(row.get(7, Long.class)).thenReturn(3L);
+
+        Portfolio portfolio = mapper.apply(row, metadata, "e");
+        mapper.apply(row, metadata, "e");
+
+        assertThat(portfolio.getId()).isEqualTo(1L);
+        assertThat(portfolio.getProjectName()).isEqualTo("projectName");
+        assertThat(portfolio.getDescription()).isEqualTo("description");
+        assertThat(portfolio.getImageUrl()).isEqualTo("imageUrl");
+        assertThat(portfolio.getLink()).isEqualTo("link");
+        assertThat(portfolio.getUserId()).isEqualTo("userId");
+        assertThat(portfolio.getVersion()).isEqualTo(3L);
+        verify(row, never()).get(anyString(), any(Class.class));
+        verify(row, never()).get(anyString());
+        // the columns are resolved once for the metadata, not per row
+        verify(metadata, times(1)).getColumnMetadatas();
+    }
+
+    @Test
+    void testConvertsWhenDriverTypeDiffers() {
+        RowMetadata metadata = metadata("e_id", Integer.class, "e_project_name", null);
+        Row row = mock(Row.class);
+        when(row.get(0)).thenReturn(7);
+        when(row.get(1)).thenReturn("projectName");
+
+        Portfolio portfolio = mapper.apply(row, metadata, "e");
+
+        assertThat(portfolio.getId()).isEqualTo(7L);
+        assertThat(portfolio.getProjectName()).isEqualTo("projectName");
+        assertThat(portfolio.getLink()).isNull();
+        verify(row, never()).get(eq(0), any(Class.class));
+    }
+
+    @Test
+    void testKeepsTheColumnsOfInterleavedShapes() {
+        RowMetadata byId = metadata("e_id", Long.class, "e_project_name", String.class);
+        RowMetadata byName = metadata("e_project_name", String.class, "e_id", Long.class);
+        Row idFirst = mock(Row.class);
+        when(idFirst.get(0, Long.class)).thenReturn(1L);
+        when(idFirst.get(1, String.class)).thenReturn("first");
+        Row nameFirst = mock(Row.class);
+        when(nameFirst.get(0, String.class)).thenReturn("second");
+        when(nameFirst.get(1, Long.class)).thenReturn(2L);
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(mapper.apply(idFirst, byId, "e").getProjectName()).isEqualTo("first");
+            assertThat(mapper.apply(nameFirst, byName, "e").getId()).isEqualTo(2L);
+        }
+        // a new result of an already resolved shape reuses its columns
+        Portfolio portfolio = mapper.apply(idFirst, metadata("e_id", Long.class, "e_project_name", String.class), "e");
+
+        assertThat(portfolio.getId()).isEqualTo(1L);
+        assertThat(portfolio.getProjectName()).isEqualTo("first");
+    }
+}
@@ -0,0 +1,109 @@
+package com.developer.portfolio.security.oauth2;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Test class for the {@link UserInfoCache} utility class.
+ */
+class UserInfoCacheTest {
+
+    private static final Duration REFRESH_AFTER = Duration.ofHours(1);
+
+    private static final Duration EXPIRE_AFTER = REFRESH_AFTER.multipliedBy(3);
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final List<String> fetchedWith = new CopyOnWriteArrayList<>();
+
+    private Mono<Map<String, Object>> response;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private UserInfoCache cache;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        response = Mono.just(Map.of("given_name", "first"));
+        cache = new UserInfoCache(
+            token -> {
+                fetchedWith.add(token);
+                return response;
+            },
+            REFRESH_AFTER,
+            EXPIRE_AFTER,
+            meterRegistry,
+            nanos::get,
+            Runnable::run
+        );
+    }
+
+    @Test
+    void testConcurrentRequestsShareOneCall() {
+        Sinks.One<Map<String, Object>> userInfo = Sinks.one();
+        response = userInfo.asMono();
+
+        Mono<Map<String, Object>> first = cache.get("subject", "token-1").cache();
+        Mono<Map<String, Object>> second = cache.get("subject", "token-2").cache();
+        first.subscribe();
+        second.subscribe();
+        userInfo.tryEmitValue(Map.of("given_name", "first"));
+
+        assertThat(first.block()).containsEntry("given_name", "first");
+        assertThat(second.block()).containsEntry("given_name", "first");
+        assertThat(fetchedWith).containsExactly("token-1");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", UserInfoCache.CACHE_NAME).tag("result", "miss").functionCounter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", UserInfoCache.CACHE_NAME).tag("result", "hit").functionCounter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testUserInfoIsRefreshedWithTheLatestToken() {
+        cache.get("subject", "token-1").block();
+        Sinks.One<Map<String, Object>> refreshed = Sinks.one();
+        response = refreshed.asMono();
+        nanos.addAndGet(REFRESH_AFTER.plusMinutes(1).toNanos());
+
+        // served while the refresh is in progress
+        assertThat(cache.get("subject", "token-2").block()).containsEntry("given_name", "first");
+        refreshed.tryEmitValue(Map.of("given_name", "second"));
+        assertThat(cache.get("subject", "token-2").block()).containsEntry("given_name", "second");
+        assertThat(fetchedWith).containsExactly("token-1", "token-2");
+    }
+
+    @Test
+    void testStaleUserInfoIsServedWhenTheRefreshFails() {
+        cache.get("subject", "token-1").block();
+        response = Mono.error(new IllegalStateException("identity provider down"));
+        nanos.addAndGet(REFRESH_AFTER.plusMinutes(1).toNanos());
+
+        assertThat(cache.get("subject", "token-2").block()).containsEntry("given_name", "first");
+        assertThat(cache.get("subject", "token-2").block()).containsEntry("given_name", "first");
+    }
+
+    @Test
+    void testUserInfoIsDroppedOnceExpiredEvenIfUsed() {
+        cache.get("subject", "token-1").block();
+        response = Mono.error(new IllegalStateException("identity provider down"));
+        for (long elapsed = 0; elapsed < EXPIRE_AFTER.toMinutes(); elapsed += 30) {
+            nanos.addAndGet(Duration.ofMinutes(30).toNanos());
+            cache.get("subject", "token-2").onErrorResume(e -> Mono.empty()).block();
+        }
+        nanos.addAndGet(Duration.ofMinutes(1).toNanos());
+
+        assertThatThrownBy(() -> cache.get("subject", "token-3").block()).hasMessageContaining("identity provider down");
+    }
+}
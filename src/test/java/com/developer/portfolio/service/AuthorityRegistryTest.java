@@ -0,0 +1,174 @@
+package com.developer.portfolio.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.developer.portfolio.config.ApplicationProperties;
+import com.developer.portfolio.domain.Authority;
+import com.developer.portfolio.repository.AuthorityRepository;
+import com.developer.portfolio.repository.CacheInvalidationBus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class AuthorityRegistryTest {
+
+    private AuthorityRepository authorityRepository;
+
+    private Consumer<String> invalidations;
+
+    private ApplicationProperties applicationProperties;
+
+    private AuthorityRegistry registry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        authorityRepository = mock(AuthorityRepository.class);
+        when(authorityRepository.findAll()).thenAnswer(invocation -> Flux.just(authority("ROLE_ADMIN"), authority("ROLE_USER")));
+        when(authorityRepository.save(any(Authority.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        CacheInvalidationBus cacheInvalidationBus = mock(CacheInvalidationBus.class);
+        when(cacheInvalidationBus.publish(anyString(), anyString())).thenReturn(Mono.empty());
+        when(cacheInvalidationBus.publish(anyString(), anyCollection())).thenReturn(Mono.empty());
+        applicationProperties = new ApplicationProperties();
+        registry = new AuthorityRegistry(authorityRepository, cacheInvalidationBus, applicationProperties, new SimpleMeterRegistry());
+        ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(cacheInvalidationBus).subscribeRemote(eq(AuthorityRegistry.AUTHORITIES_CACHE), listener.capture());
+        invalidations = listener.getValue();
+    }
+
+    @Test
+    void shouldLoadTheAuthoritiesOnce() {
+        registry.run(null);
+
+        assertThat(registry.contains("ROLE_ADMIN").block()).isTrue();
+        assertThat(registry.contains("ROLE_OTHER").block()).isFalse();
+        assertThat(registry.findAll().map(Authority::getName).collectList().block()).containsExactly("ROLE_ADMIN", "ROLE_USER");
+        verify(authorityRepository, times(1)).findAll();
+    }
+
+    @Test
+    void shouldOnlyCreateTheMissingAuthorities() {
+        when(authorityRepository.save(any(Authority.class))).thenAnswer(invocation ->
+            "ROLE_RACED".equals(invocation.<Authority>getArgument(0).getName())
+                ? Mono.error(new DuplicateKeyException("ROLE_RACED"))
+                : Mono.just(invocation.getArgument(0))
+        );
+
+        registry.createMissing(List.of("ROLE_USER", "ROLE_NEW", "ROLE_RACED")).block();
+
+        verify(authorityRepository, times(2)).save(any(Authority.class));
+        assertThat(registry.getNames().block()).isEqualTo(Set.of("ROLE_ADMIN", "ROLE_USER", "ROLE_NEW", "ROLE_RACED"));
+        verify(authorityRepository, times(1)).findAll();
+    }
+
+    @Test
+    void shouldLoadTheAuthoritiesAgainOnceInvalidated() {
+        registry.getNames().block();
+
+        invalidations.accept("ROLE_OTHER");
+        registry.getNames().block();
+
+        verify(authorityRepository, times(2)).findAll();
+    }
+
+    @Test
+    void shouldShareTheLoadOfTheConcurrentUses() {
+        Sinks.One<Authority> loaded = Sinks.one();
+        when(authorityRepository.findAll()).thenAnswer(invocation -> loaded.asMono().flux());
+
+        CompletableFuture<Boolean> first = registry.contains("ROLE_ADMIN").toFuture();
+        CompletableFuture<Boolean> second = registry.contains("ROLE_ADMIN").toFuture();
+        loaded.tryEmitValue(authority("ROLE_ADMIN"));
+
+        assertThat(first.join()).isTrue();
+        assertThat(second.join()).isTrue();
+        verify(authorityRepository, times(1)).findAll();
+    }
+
+    @Test
+    void shouldLoadTheAuthoritiesAgainOnceExpired() {
+        applicationProperties.getCache().getAuthorities().setTimeToLive(Duration.ZERO);
+
+        registry.getNames().block();
+        registry.getNames().block();
+
+        verify(authorityRepository, times(2)).findAll();
+    }
+
+    @Test
+    void shouldOnlyApplyTheChangesOfACommittedTransaction() {
+        registry.getNames().block();
+        TransactionalOperator transaction = TransactionalOperator.create(new StubTransactionManager());
+
+        transaction
+            .execute(status -> {
+                status.setRollbackOnly();
+                return registry.create(authority("ROLE_ROLLED_BACK"));
+            })
+            .blockLast();
+        Boolean visibleBeforeCommit = transaction
+            .transactional(registry.create(authority("ROLE_COMMITTED")).then(registry.contains("ROLE_COMMITTED")))
+            .block();
+
+        assertThat(visibleBeforeCommit).isFalse();
+        assertThat(registry.contains("ROLE_COMMITTED").block()).isTrue();
+        assertThat(registry.contains("ROLE_ROLLED_BACK").block()).isFalse();
+    }
+
+    /**
+     * A transaction manager without any resource, which only runs the synchronizations.
+     */
+    private static final class StubTransactionManager extends AbstractReactiveTransactionManager {
+
+        @Override
+        protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+            return new Object();
+        }
+
+        @Override
+        protected Mono<Void> doBegin(
+            TransactionSynchronizationManager synchronizationManager,
+            Object transaction,
+            TransactionDefinition definition
+        ) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager, GenericReactiveTransaction status) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager, GenericReactiveTransaction status) {
+            return Mono.empty();
+        }
+    }
+
+    private static Authority authority(String name) {
+        return new Authority().name(name);
+    }
+}
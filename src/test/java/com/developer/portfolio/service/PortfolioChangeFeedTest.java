@@ -0,0 +1,100 @@
+package com.developer.portfolio.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.developer.portfolio.config.ApplicationProperties;
+import com.developer.portfolio.service.dto.PortfolioChangeDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+class PortfolioChangeFeedTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PortfolioChangeFeed feed;
+
+    @BeforeEach
+    void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getChanges().setHistorySize(3);
+        meterRegistry = new SimpleMeterRegistry();
+        feed = new PortfolioChangeFeed(applicationProperties, meterRegistry);
+    }
+
+    @Test
+    void shouldSendTheNextChangesToAllSubscribers() {
+        List<PortfolioChangeFeed.Event> first = new CopyOnWriteArrayList<>();
+        List<PortfolioChangeFeed.Event> second = new CopyOnWriteArrayList<>();
+        Disposable firstSubscription = feed.changes(null).subscribe(first::add);
+        Disposable secondSubscription = feed.changes(null).subscribe(second::add);
+        assertThat(meterRegistry.get("portfolio.changes.subscribers").gauge().value()).isEqualTo(2);
+
+        publish(PortfolioChangeDTO.Type.CREATED, 1L);
+        publish(PortfolioChangeDTO.Type.UPDATED, 1L);
+
+        assertThat(first).extracting(event -> event.change().getType()).containsExactly(
+            PortfolioChangeDTO.Type.CREATED,
+            PortfolioChangeDTO.Type.UPDATED
+        );
+        assertThat(second).isEqualTo(first);
+        assertThat(first.get(1).id()).isGreaterThan(first.get(0).id());
+
+        firstSubscription.dispose();
+        secondSubscription.dispose();
+        assertThat(meterRegistry.get("portfolio.changes.subscribers").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldResumeAfterTheLastEventId() {
+        List<PortfolioChangeFeed.Event> received = new CopyOnWriteArrayList<>();
+        Disposable subscription = feed.changes(null).subscribe(received::add);
+        publish(PortfolioChangeDTO.Type.CREATED, 1L);
+        subscription.dispose();
+        publish(PortfolioChangeDTO.Type.UPDATED, 1L);
+        publish(PortfolioChangeDTO.Type.DELETED, 1L);
+
+        List<PortfolioChangeFeed.Event> resumed = new CopyOnWriteArrayList<>();
+        subscription = feed.changes(received.get(0).id()).subscribe(resumed::add);
+        publish(PortfolioChangeDTO.Type.CREATED, 2L);
+        subscription.dispose();
+
+        assertThat(resumed).extracting(event -> event.change().getType()).containsExactly(
+            PortfolioChangeDTO.Type.UPDATED,
+            PortfolioChangeDTO.Type.DELETED,
+            PortfolioChangeDTO.Type.CREATED
+        );
+        assertThat(resumed.get(2).change().getId()).isEqualTo(2L);
+    }
+
+    @Test
+    void shouldOnlyKeepTheRecentChanges() {
+        for (long id = 1; id <= 5; id++) {
+            publish(PortfolioChangeDTO.Type.CREATED, id);
+        }
+
+        List<PortfolioChangeFeed.Event> resumed = feed.changes(0L).take(3).collectList().block(Duration.ofSeconds(1));
+
+        assertThat(resumed).extracting(event -> event.change().getId()).containsExactly(3L, 4L, 5L);
+    }
+
+    @Test
+    void shouldNotReplayAfterAnUnknownEventId() {
+        publish(PortfolioChangeDTO.Type.CREATED, 1L);
+
+        List<PortfolioChangeFeed.Event> received = new CopyOnWriteArrayList<>();
+        Disposable subscription = feed.changes(Long.MAX_VALUE).subscribe(received::add);
+        publish(PortfolioChangeDTO.Type.CREATED, 2L);
+        subscription.dispose();
+
+        assertThat(received).extracting(event -> event.change().getId()).containsExactly(2L);
+    }
+
+    private void publish(PortfolioChangeDTO.Type type, Long id) {
+        feed.publish(new PortfolioChangeDTO(type, id, null)).block(Duration.ofSeconds(1));
+    }
+}
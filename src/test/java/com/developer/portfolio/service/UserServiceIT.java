@@ -1,9 +1,11 @@
 package com.developer.portfolio.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 import com.developer.portfolio.IntegrationTest;
 import com.developer.portfolio.config.Constants;
+import com.developer.portfolio.domain.Authority;
 import com.developer.portfolio.domain.User;
 import com.developer.portfolio.repository.UserRepository;
 import com.developer.portfolio.security.AuthoritiesConstants;
@@ -11,14 +13,19 @@ import com.developer.portfolio.service.dto.AdminUserDTO;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
 import org.springframework.security.oauth2.core.user.OAuth2User;
@@ -143,6 +150,104 @@ class UserServiceIT {
         assertThat(userDTO.getLangKey()).isEqualTo("en");
     }
 
+    @Test
+    void testUserDetailsAreOnlySyncedWhenTheyChange() {
+        userDetails.put("sub", "sync_service");
+        OAuth2AuthenticationToken authentication = createMockOAuth2AuthenticationToken(userDetails);
+        sync(authentication);
+        User synced = userRepository.findOneByLogin("sync_service").block();
+        assertThat(synced.getSyncFingerprint()).isNotNull();
+
+        sync(authentication);
+        assertThat(userRepository.findOneByLogin("sync_service").block().getSyncFingerprint()).isEqualTo(synced.getSyncFingerprint());
+
+        userDetails.put("family_name", "changed");
+        authentication = createMockOAuth2AuthenticationToken(userDetails);
+        sync(authentication);
+        User changed = userRepository.findOneByLogin("sync_service").block();
+        assertThat(changed.getLastName()).isEqualTo("changed");
+        assertThat(changed.getSyncFingerprint()).isNotEqualTo(synced.getSyncFingerprint());
+    }
+
+    @Test
+    void testSyncFingerprint() {
+        User other = new User();
+        other.setId(user.getId());
+        other.setLogin(user.getLogin());
+        other.setEmail(user.getEmail());
+        Authority admin = new Authority();
+        admin.setName(AuthoritiesConstants.ADMIN);
+        Authority userAuthority = new Authority();
+        userAuthority.setName(AuthoritiesConstants.USER);
+        user.setAuthorities(new LinkedHashSet<>(List.of(admin, userAuthority)));
+        other.setAuthorities(new LinkedHashSet<>(List.of(userAuthority, admin)));
+
+        assertThat(UserService.syncFingerprint(user, 1)).isNotEqualTo(UserService.syncFingerprint(other, 1));
+        other.setFirstName(user.getFirstName());
+        other.setLastName(user.getLastName());
+        other.setActivated(user.isActivated());
+        other.setLangKey(user.getLangKey());
+        other.setImageUrl(user.getImageUrl());
+        assertThat(UserService.syncFingerprint(user, 1)).isEqualTo(UserService.syncFingerprint(other, 1));
+        assertThat(UserService.syncFingerprint(user, 1)).isNotEqualTo(UserService.syncFingerprint(other, 2));
+    }
+
+    @Test
+    void testSaveUserReplacesItsAuthorities() {
+        Authority admin = new Authority();
+        admin.setName(AuthoritiesConstants.ADMIN);
+        Authority userAuthority = new Authority();
+        userAuthority.setName(AuthoritiesConstants.USER);
+        user.setId("save_service-id");
+        user.setAuthorities(new LinkedHashSet<>(List.of(admin, userAuthority)));
+        userService.saveUser(user, true).block();
+
+        User saved = userRepository.findOneWithAuthoritiesByLogin(DEFAULT_LOGIN).block();
+        saved.setAuthorities(new LinkedHashSet<>(List.of(userAuthority)));
+        userService.saveUser(saved).block();
+
+        assertThat(userRepository.findOneWithAuthoritiesByLogin(DEFAULT_LOGIN).block().getAuthorities())
+            .extracting(Authority::getName)
+            .containsExactly(AuthoritiesConstants.USER);
+    }
+
+    @Test
+    void testGetAllManagedUsersPagesInTheDatabase() {
+        for (String login : List.of("user_a", "user_b", "user_c")) {
+            User managed = new User();
+            managed.setId(login + "-id");
+            managed.setLogin(login);
+            managed.setActivated(true);
+            managed.setCreatedBy(Constants.SYSTEM);
+            userRepository.save(managed).block();
+            userRepository.saveUserAuthority(managed.getId(), AuthoritiesConstants.USER).block();
+        }
+        userRepository.saveUserAuthority("user_b-id", AuthoritiesConstants.ADMIN).block();
+
+        List<AdminUserDTO> page = userService
+            .getAllManagedUsers(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "login")))
+            .collectList()
+            .block();
+
+        assertThat(page).extracting(AdminUserDTO::getLogin).containsExactly("user_c", "user_b");
+        assertThat(page.get(0).getAuthorities()).containsExactly(AuthoritiesConstants.USER);
+        assertThat(page.get(1).getAuthorities()).containsExactlyInAnyOrder(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN);
+    }
+
+    @Test
+    void testGetAllManagedUsersWithAnUnsupportedSort() {
+        assertThatIllegalArgumentException().isThrownBy(() ->
+            userService.getAllManagedUsers(PageRequest.of(0, 2, Sort.by("authorities"))).collectList().block()
+        );
+    }
+
+    private void sync(OAuth2AuthenticationToken authentication) {
+        userService
+            .getUserFromAuthentication(authentication)
+            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication))
+            .block();
+    }
+
     private OAuth2AuthenticationToken createMockOAuth2AuthenticationToken(Map<String, Object> userDetails) {
         Collection<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
         UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
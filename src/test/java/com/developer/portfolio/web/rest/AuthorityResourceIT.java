@@ -10,6 +10,7 @@ import com.developer.portfolio.IntegrationTest;
 import com.developer.portfolio.domain.Authority;
 import com.developer.portfolio.repository.AuthorityRepository;
 import com.developer.portfolio.repository.EntityManager;
+import com.developer.portfolio.service.AuthorityRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Duration;
 import java.util.List;
@@ -40,6 +41,9 @@ class AuthorityResourceIT {
     @Autowired
     private AuthorityRepository authorityRepository;
 
+    @Autowired
+    private AuthorityRegistry authorityRegistry;
+
     @Autowired
     private EntityManager em;
 
@@ -91,10 +95,12 @@ class AuthorityResourceIT {
     @AfterEach
     public void cleanup() {
         if (insertedAuthority != null) {
-            authorityRepository.delete(insertedAuthority).block();
+            authorityRegistry.delete(insertedAuthority.getName()).block();
             insertedAuthority = null;
         }
         deleteEntities(em);
+        // the entities are deleted without the registry
+        authorityRegistry.invalidate();
     }
 
     @Test
@@ -123,7 +129,7 @@ class AuthorityResourceIT {
     @Test
     void createAuthorityWithExistingId() throws Exception {
         // Create the Authority with an existing ID
-        insertedAuthority = authorityRepository.save(authority).block();
+        insertedAuthority = authorityRegistry.create(authority).block();
 
         long databaseSizeBeforeCreate = getRepositoryCount();
 
@@ -145,7 +151,7 @@ class AuthorityResourceIT {
     void getAllAuthoritiesAsStream() {
         // Initialize the database
         authority.setName(UUID.randomUUID().toString());
-        authorityRepository.save(authority).block();
+        authorityRegistry.create(authority).block();
 
         List<Authority> authorityList = webTestClient
             .get()
@@ -175,7 +181,7 @@ class AuthorityResourceIT {
     void getAllAuthorities() {
         // Initialize the database
         authority.setName(UUID.randomUUID().toString());
-        insertedAuthority = authorityRepository.save(authority).block();
+        insertedAuthority = authorityRegistry.create(authority).block();
 
         // Get all the authorityList
         webTestClient
@@ -196,7 +202,7 @@ class AuthorityResourceIT {
     void getAuthority() {
         // Initialize the database
         authority.setName(UUID.randomUUID().toString());
-        insertedAuthority = authorityRepository.save(authority).block();
+        insertedAuthority = authorityRegistry.create(authority).block();
 
         // Get the authority
         webTestClient
@@ -229,7 +235,7 @@ class AuthorityResourceIT {
     void deleteAuthority() {
         // Initialize the database
         authority.setName(UUID.randomUUID().toString());
-        insertedAuthority = authorityRepository.save(authority).block();
+        insertedAuthority = authorityRegistry.create(authority).block();
 
         long databaseSizeBeforeDelete = getRepositoryCount();
 
@@ -9,13 +9,20 @@ import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.csrf;
 
 import com.developer.portfolio.IntegrationTest;
+import com.developer.portfolio.config.ApplicationProperties;
 import com.developer.portfolio.domain.Portfolio;
 import com.developer.portfolio.domain.User;
 import com.developer.portfolio.repository.EntityManager;
+import com.developer.portfolio.repository.KeysetCursor;
 import com.developer.portfolio.repository.PortfolioRepository;
 import com.developer.portfolio.repository.UserRepository;
+import com.developer.portfolio.service.PortfolioChangeFeed;
+import com.developer.portfolio.service.dto.PortfolioChangeDTO;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,9 +32,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 
 /**
@@ -60,6 +71,9 @@ class PortfolioResourceIT {
     @Autowired
     private ObjectMapper om;
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
     @Autowired
     private PortfolioRepository portfolioRepository;
 
@@ -69,6 +83,9 @@ class PortfolioResourceIT {
     @Mock
     private PortfolioRepository portfolioRepositoryMock;
 
+    @Autowired
+    private PortfolioChangeFeed changeFeed;
+
     @Autowired
     private EntityManager em;
 
@@ -269,6 +286,76 @@ class PortfolioResourceIT {
         assertSameRepositoryCount(databaseSizeBeforeTest);
     }
 
+    @Test
+    void bulkSavePortfolios() throws Exception {
+        insertedPortfolio = portfolioRepository.save(portfolio).block();
+        long databaseSizeBeforeCreate = getRepositoryCount();
+
+        Portfolio newPortfolio = createEntity(em);
+        Portfolio invalidPortfolio = createEntity(em).projectName(null);
+        Portfolio updatedPortfolio = createUpdatedEntity(em).id(insertedPortfolio.getId());
+        Portfolio missingPortfolio = createUpdatedEntity(em).id(longCount.incrementAndGet());
+
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/_bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(List.of(newPortfolio, invalidPortfolio, updatedPortfolio, missingPortfolio)))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].index")
+            .isEqualTo(List.of(0, 1, 2, 3))
+            .jsonPath("$.[*].status")
+            .isEqualTo(List.of(201, 400, 200, 404))
+            .jsonPath("$.[1].fieldErrors.[0].field")
+            .isEqualTo("projectName")
+            .jsonPath("$.[2].id")
+            .isEqualTo(insertedPortfolio.getId().intValue());
+
+        assertIncrementedRepositoryCount(databaseSizeBeforeCreate);
+        assertPortfolioUpdatableFieldsEquals(updatedPortfolio, getPersistedPortfolio(insertedPortfolio));
+    }
+
+    @Test
+    void bulkSavePortfolioStream() throws Exception {
+        long databaseSizeBeforeCreate = getRepositoryCount();
+        String ndjson = om.writeValueAsString(portfolio) + "\n" + om.writeValueAsString(createEntity(em)) + "\n";
+
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/_bulk")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .bodyValue(ndjson)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].status")
+            .isEqualTo(List.of(201, 201));
+
+        assertThat(getRepositoryCount()).isEqualTo(databaseSizeBeforeCreate + 2);
+    }
+
+    @Test
+    void bulkSavePortfolioStreamTooLarge() throws Exception {
+        long databaseSizeBeforeCreate = getRepositoryCount();
+        String line = om.writeValueAsString(createEntity(em)) + "\n";
+
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/_bulk")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .bodyValue(line.repeat(applicationProperties.getBulk().getMaxItems() + 1))
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+
+        // the limit is checked before the first batch is written
+        assertSameRepositoryCount(databaseSizeBeforeCreate);
+    }
+
     @Test
     void getAllPortfolios() {
         // Initialize the database
@@ -297,6 +384,225 @@ class PortfolioResourceIT {
             .value(hasItem(DEFAULT_LINK));
     }
 
+    @Test
+    void getAllPortfoliosLoadsUsersOnce() {
+        // Initialize the database, with two portfolios of the same user
+        insertedPortfolio = portfolioRepository.save(portfolio).block();
+        portfolioRepository.save(createEntity(em).user(portfolio.getUser())).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].user.login")
+            .isEqualTo(List.of(portfolio.getUser().getLogin(), portfolio.getUser().getLogin()));
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc&eagerload=false")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(hasItem(portfolio.getId().intValue()))
+            .jsonPath("$.[0].user")
+            .doesNotExist();
+    }
+
+    @Test
+    void getAllPortfoliosAsStream() {
+        // Initialize the database
+        insertedPortfolio = portfolioRepository.save(portfolio).block();
+
+        List<Portfolio> portfolioList = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=projectName,asc")
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .returnResult(Portfolio.class)
+            .getResponseBody()
+            .filter(result -> portfolio.getId().equals(result.getId()))
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(portfolioList).hasSize(1);
+        assertThat(portfolioList.get(0).getProjectName()).isEqualTo(DEFAULT_PROJECT_NAME);
+        assertThat(portfolioList.get(0).getUser().getLogin()).isEqualTo(portfolio.getUser().getLogin());
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=user,asc")
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
+    @Test
+    void getAllPortfoliosWithFields() {
+        // Initialize the database
+        insertedPortfolio = portfolioRepository.save(portfolio).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=link,desc&fields=projectName,imageUrl")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[0].id")
+            .isEqualTo(portfolio.getId().intValue())
+            .jsonPath("$.[0].projectName")
+            .isEqualTo(DEFAULT_PROJECT_NAME)
+            .jsonPath("$.[0].imageUrl")
+            .isEqualTo(DEFAULT_IMAGE_URL)
+            .jsonPath("$.[0].description")
+            .doesNotExist()
+            .jsonPath("$.[0].link")
+            .doesNotExist()
+            .jsonPath("$.[0].user")
+            .doesNotExist();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID + "?fields=link,user", portfolio.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.link")
+            .isEqualTo(DEFAULT_LINK)
+            .jsonPath("$.user.login")
+            .isEqualTo(portfolio.getUser().getLogin())
+            .jsonPath("$.projectName")
+            .doesNotExist();
+    }
+
+    @Test
+    void getAllPortfoliosWithUnknownField() {
+        webTestClient.get().uri(ENTITY_API_URL + "?fields=id,password").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getAllPortfoliosWithTotalCount() {
+        // Initialize the database
+        insertedPortfolio = portfolioRepository.save(portfolio).block();
+        long total = portfolioRepository.count().block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?page=0&size=1&sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueEquals("X-Total-Count", String.valueOf(total))
+            .expectBody()
+            .jsonPath("$.length()")
+            .isEqualTo(1);
+    }
+
+    @Test
+    void getAllPortfoliosWithoutTotalCount() {
+        // Initialize the database
+        insertedPortfolio = portfolioRepository.save(portfolio).block();
+
+        String link = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?page=0&size=1&sort=id,desc&count=false")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .doesNotExist("X-Total-Count")
+            .expectBody()
+            .jsonPath("$.[0].id")
+            .isEqualTo(portfolio.getId().intValue())
+            .returnResult()
+            .getResponseHeaders()
+            .getFirst(HttpHeaders.LINK);
+        assertThat(link).contains("page=1").contains("rel=\"next\"").doesNotContain("rel=\"last\"");
+    }
+
+    @Test
+    void getAllPortfoliosWithKeysetPagination() {
+        // Initialize the database
+        insertedPortfolio = portfolioRepository.save(portfolio).block();
+        Portfolio second = portfolioRepository.save(createUpdatedEntity(em)).block();
+
+        try {
+            // First page, without cursor: no total count, and a next link as the page is full
+            String link = webTestClient
+                .get()
+                .uri(ENTITY_API_URL + "?after=&size=1&sort=id,asc")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .doesNotExist("X-Total-Count")
+                .expectBody()
+                .jsonPath("$.length()")
+                .isEqualTo(1)
+                .jsonPath("$.[0].id")
+                .isEqualTo(portfolio.getId().intValue())
+                .returnResult()
+                .getResponseHeaders()
+                .getFirst(HttpHeaders.LINK);
+            assertThat(link).contains("rel=\"next\"");
+            String cursor = new KeysetCursor("id", Sort.Direction.ASC, portfolio.getId(), null).encode();
+            assertThat(link).contains("after=" + cursor);
+
+            // Second page, seeking after the first row
+            webTestClient
+                .get()
+                .uri(ENTITY_API_URL + "?after=" + cursor + "&size=1&sort=id,asc")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.[0].id")
+                .isEqualTo(second.getId().intValue());
+        } finally {
+            portfolioRepository.delete(second).block();
+        }
+    }
+
+    @Test
+    void getAllPortfoliosWithInvalidKeysetCursor() {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=not-a-cursor&sort=id,asc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+
+        String cursor = new KeysetCursor("projectName", Sort.Direction.ASC, 1L, DEFAULT_PROJECT_NAME).encode();
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=" + cursor + "&sort=id,asc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
     @SuppressWarnings({ "unchecked" })
     void getAllPortfoliosWithEagerRelationshipsIsEnabled() {
         when(portfolioRepositoryMock.findAllWithEagerRelationships(any())).thenReturn(Flux.empty());
@@ -342,6 +648,30 @@ class PortfolioResourceIT {
             .value(is(DEFAULT_LINK));
     }
 
+    @Test
+    void getPortfolioIsInvalidatedOnSave() {
+        // Initialize the database
+        insertedPortfolio = portfolioRepository.save(portfolio).block();
+
+        // Load it in the cache, and modify the returned copy
+        Portfolio cached = portfolioRepository.findById(portfolio.getId()).block();
+        cached.setProjectName(UPDATED_PROJECT_NAME);
+        assertThat(portfolioRepository.findById(portfolio.getId()).block().getProjectName()).isEqualTo(DEFAULT_PROJECT_NAME);
+
+        // Saving evicts the cached portfolio
+        portfolioRepository.save(cached).block();
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, portfolio.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.projectName")
+            .value(is(UPDATED_PROJECT_NAME));
+    }
+
     @Test
     void getNonExistingPortfolio() {
         // Get the portfolio
@@ -372,13 +702,77 @@ class PortfolioResourceIT {
             .bodyValue(om.writeValueAsBytes(updatedPortfolio))
             .exchange()
             .expectStatus()
-            .isOk();
+            .isOk()
+            .expectHeader()
+            .valueEquals(HttpHeaders.ETAG, "\"1\"");
 
         // Validate the Portfolio in the database
         assertSameRepositoryCount(databaseSizeBeforeUpdate);
         assertPersistedPortfolioToMatchAllProperties(updatedPortfolio);
     }
 
+    @Test
+    void putExistingPortfolioWithIfMatch() throws Exception {
+        // Initialize the database
+        insertedPortfolio = portfolioRepository.save(portfolio).block();
+
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, portfolio.getId())
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueEquals(HttpHeaders.ETAG, "\"0\"")
+            .returnResult(Portfolio.class)
+            .getResponseHeaders()
+            .getETag();
+
+        Portfolio updatedPortfolio = createUpdatedEntity(em).id(portfolio.getId());
+
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, updatedPortfolio.getId())
+            .header(HttpHeaders.IF_MATCH, eTag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(updatedPortfolio))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+        assertPersistedPortfolioToMatchUpdatableProperties(updatedPortfolio);
+
+        // The same ETag doesn't match anymore
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, updatedPortfolio.getId())
+            .header(HttpHeaders.IF_MATCH, eTag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(portfolio))
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        assertPersistedPortfolioToMatchUpdatableProperties(updatedPortfolio);
+    }
+
+    @Test
+    void putNonExistingPortfolioWithIfMatch() throws Exception {
+        portfolio.setId(longCount.incrementAndGet());
+
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, portfolio.getId())
+            .header(HttpHeaders.IF_MATCH, "\"0\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(portfolio))
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
     @Test
     void putNonExistingPortfolio() throws Exception {
         long databaseSizeBeforeUpdate = getRepositoryCount();
@@ -467,6 +861,30 @@ class PortfolioResourceIT {
         );
     }
 
+    @Test
+    void partialUpdatePortfolioReturnsStoredPortfolio() throws Exception {
+        // Initialize the database
+        insertedPortfolio = portfolioRepository.save(portfolio).block();
+
+        Portfolio partialUpdatedPortfolio = new Portfolio().id(portfolio.getId()).link(UPDATED_LINK);
+
+        webTestClient
+            .patch()
+            .uri(ENTITY_API_URL_ID, partialUpdatedPortfolio.getId())
+            .contentType(MediaType.valueOf("application/merge-patch+json"))
+            .bodyValue(om.writeValueAsBytes(partialUpdatedPortfolio))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueEquals(HttpHeaders.ETAG, "\"1\"")
+            .expectBody()
+            .jsonPath("$.projectName")
+            .value(is(DEFAULT_PROJECT_NAME))
+            .jsonPath("$.link")
+            .value(is(UPDATED_LINK));
+    }
+
     @Test
     void fullUpdatePortfolioWithPatch() throws Exception {
         // Initialize the database
@@ -576,6 +994,27 @@ class PortfolioResourceIT {
         assertDecrementedRepositoryCount(databaseSizeBeforeDelete);
     }
 
+    @Test
+    void deleteNonExistingPortfolio() {
+        List<PortfolioChangeFeed.Event> changes = new CopyOnWriteArrayList<>();
+        Disposable subscription = changeFeed.changes(null).subscribe(changes::add);
+        try {
+            // Delete a portfolio which doesn't exist
+            webTestClient
+                .delete()
+                .uri(ENTITY_API_URL_ID, longCount.incrementAndGet())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isNoContent();
+
+            // Validate no deletion was published
+            assertThat(changes).noneMatch(event -> event.change().getType() == PortfolioChangeDTO.Type.DELETED);
+        } finally {
+            subscription.dispose();
+        }
+    }
+
     protected long getRepositoryCount() {
         return portfolioRepository.count().block();
     }